@@ -0,0 +1,98 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agenda for one week of an account with {@code totalTasks} tasks over 100 lists. The
+ * week always holds the same 500 open tasks; every other task is either done or due
+ * outside the week. With the (list_id, done, due_date, id) index the cost follows the
+ * 500 matching rows, so 10k and 100k should measure about the same; a full scan would
+ * grow ~10x. The H2 plan is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgendaBenchmark {
+
+    private static final int LISTS = 100;
+    private static final int IN_WEEK = 500;
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate SUNDAY = MONDAY.plusDays(6);
+
+    @Param({"10000", "100000"})
+    public int totalTasks;
+
+    private ConfigurableApplicationContext ctx;
+    private ListService listService;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctx = Benchmarks.boot("app.cache.read.type=none");
+        listService = ctx.getBean(ListService.class);
+        TaskService taskService = ctx.getBean(TaskService.class);
+        userId = ctx.getBean(UserRepository.class).save(User.builder().name("agenda").email("agenda@mock.local").build()).getId();
+        List<Long> listIds = new ArrayList<>();
+        for (int l = 0; l < LISTS; l++) listIds.add(listService.create(userId, "Lista " + l).id());
+
+        List<TaskCreateItem> batch = new ArrayList<>();
+        for (int i = 0; i < totalTasks; i++) {
+            Long listId = listIds.get(i % LISTS);
+            LocalDate due;
+            boolean done = false;
+            if (i < IN_WEEK) due = MONDAY.plusDays(i % 7);
+            else if (i % 2 == 0) {
+                due = MONDAY.plusDays(i % 7);
+                done = true;
+            } else due = MONDAY.plusWeeks(1 + i % 50).plusDays(i % 7);
+            batch.add(new TaskCreateItem(listId, "Tarefa " + i, null, done, due));
+            if (batch.size() == TaskService.MAX_BATCH_SIZE) {
+                taskService.addAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) taskService.addAll(batch);
+
+        new JdbcTemplate(ctx.getBean(javax.sql.DataSource.class)).queryForList(
+                "explain select t.id from tasks t join todo_lists l on l.id = t.list_id " +
+                "where l.user_id = ? and t.done = false and t.due_date between ? and ? order by t.due_date, t.id",
+                String.class, userId, MONDAY, SUNDAY).forEach(System.out::println);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public AgendaPage firstPage() {
+        return listService.agenda(userId, MONDAY, SUNDAY, null, ListService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int wholeWeek() {
+        int n = 0;
+        String cursor = null;
+        do {
+            AgendaPage page = listService.agenda(userId, MONDAY, SUNDAY, cursor, ListService.DEFAULT_PAGE_SIZE);
+            n += page.days().stream().mapToInt(d -> d.tasks().size()).sum();
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        if (n != IN_WEEK) throw new IllegalStateException("expected " + IN_WEEK + " tasks, got " + n);
+        return n;
+    }
+}
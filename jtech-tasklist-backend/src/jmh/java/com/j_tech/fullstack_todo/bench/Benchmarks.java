@@ -0,0 +1,53 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.FullstackTodoApplication;
+import com.j_tech.fullstack_todo.security.JwtService;
+import com.j_tech.fullstack_todo.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+/** Shared fixtures for the JMH benchmarks. */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static JwtService jwtService(long cacheSize) {
+        JwtService jwt = new JwtService(new VerifiedTokenCache(cacheSize, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwt, "secret", "ZmFrZS1qd3Qtc2VjcmV0LWZvci10ZXN0aW5nLWF0LWxlYXN0LTMyLWNoYXJz");
+        ReflectionTestUtils.setField(jwt, "expirationSeconds", 3600L);
+        ReflectionTestUtils.invokeMethod(jwt, "init");
+        return jwt;
+    }
+
+    /**
+     * Boots the application without a web server against a fresh in-memory H2 database
+     * (the test {@code config/application.properties} is on the benchmark classpath).
+     */
+    static ConfigurableApplicationContext boot(String... properties) {
+        Map<String, String> props = new LinkedHashMap<>();
+        for (String p : List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN")) {
+            put(props, p);
+        }
+        // A repeated --key=value is joined with commas, not overridden, so defaults are replaced here.
+        for (String p : properties) put(props, p);
+        // Passed as command-line arguments so they win over application.properties.
+        return new SpringApplicationBuilder(FullstackTodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+
+    private static void put(Map<String, String> props, String property) {
+        int eq = property.indexOf('=');
+        props.put(property.substring(0, eq), property.substring(eq + 1));
+    }
+}
@@ -0,0 +1,41 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwt = Benchmarks.jwtService(10_000);
+        token = jwt.generateToken("42", Map.of("name", "bench", "email", "bench@mock.local"));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwt.generateToken("42", Map.of("name", "bench", "email", "bench@mock.local"));
+    }
+
+    @Benchmark
+    public Claims parseAndValidate() {
+        return jwt.parseAndValidate(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return jwt.verify(token);
+    }
+}
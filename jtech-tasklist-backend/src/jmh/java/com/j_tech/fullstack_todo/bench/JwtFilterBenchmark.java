@@ -0,0 +1,46 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.security.JwtAuthenticationFilter;
+import com.j_tech.fullstack_todo.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/** The authentication filter end to end; cacheSize=0 disables the verified-token cache. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public long cacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private String header;
+
+    @Setup
+    public void setup() {
+        JwtService jwt = Benchmarks.jwtService(cacheSize);
+        filter = new JwtAuthenticationFilter(jwt);
+        header = "Bearer " + jwt.generateToken("42", Map.of("name", "bench"));
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/lists");
+        req.addHeader("Authorization", header);
+        filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return auth;
+    }
+}
@@ -0,0 +1,93 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ListService} read paths against an embedded H2 seeded with one user owning
+ * {@code lists} lists of {@code tasksPerList} tasks. cache=none measures the database
+ * path, cache=caffeine the steady-state read-through hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListServiceBenchmark {
+
+    @Param({"50"})
+    public int lists;
+
+    @Param({"100", "2000"})
+    public int tasksPerList;
+
+    @Param({"none", "caffeine"})
+    public String cache;
+
+    private ConfigurableApplicationContext ctx;
+    private ListService listService;
+    private Long userId;
+    private Long listId;
+    private String midCursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctx = Benchmarks.boot("app.cache.read.type=" + cache);
+        listService = ctx.getBean(ListService.class);
+        TaskService taskService = ctx.getBean(TaskService.class);
+        User u = ctx.getBean(UserRepository.class).save(User.builder().name("bench").email("bench@mock.local").build());
+        userId = u.getId();
+        for (int l = 0; l < lists; l++) {
+            Long id = listService.create(userId, "Lista " + l).id();
+            if (listId == null) listId = id;
+            List<TaskCreateItem> batch = new ArrayList<>();
+            for (int t = 0; t < tasksPerList; t++) {
+                batch.add(new TaskCreateItem(id, "Tarefa " + t, "Descrição " + t));
+                if (batch.size() == TaskService.MAX_BATCH_SIZE || t == tasksPerList - 1) {
+                    taskService.addAll(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+        }
+        TaskFilter all = new TaskFilter(null, null, null, false);
+        String cursor = null;
+        for (int seen = 0; seen < tasksPerList / 2; seen += ListService.DEFAULT_PAGE_SIZE) {
+            cursor = listService.tasks(listId, all, cursor, ListService.DEFAULT_PAGE_SIZE).nextCursor();
+        }
+        midCursor = cursor;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public List<ListDTO> findAll() {
+        return listService.findAll(userId);
+    }
+
+    @Benchmark
+    public TaskPage firstTaskPage() {
+        return listService.tasks(listId, new TaskFilter(null, null, null, false), null, ListService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskPage middleTaskPage() {
+        return listService.tasks(listId, new TaskFilter(null, null, null, false), midCursor, ListService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskPage openTasksPage() {
+        return listService.tasks(listId, new TaskFilter(false, null, null, false), null, ListService.DEFAULT_PAGE_SIZE);
+    }
+}
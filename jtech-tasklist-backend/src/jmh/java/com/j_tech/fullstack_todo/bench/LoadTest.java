@@ -0,0 +1,164 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.FullstackTodoApplication;
+import com.j_tech.fullstack_todo.dto.TaskCreateItem;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-model HTTP load test of the read endpoints, run once per thread mode:
+ * <pre>
+ *   mvn -Pjmh test-compile exec:exec -Djmh.main=com.j_tech.fullstack_todo.bench.LoadTest -Djmh.args="mode=platform"
+ *   mvn -Pjmh,jdk21 test-compile exec:exec -Djmh.main=com.j_tech.fullstack_todo.bench.LoadTest -Djmh.args="mode=virtual"
+ * </pre>
+ * Boots the full application on a random port (H2 by default; any further
+ * {@code --spring.*} argument is passed through, e.g. a MySQL datasource URL), seeds one
+ * user with {@code lists} lists of {@code tasks} tasks, then runs {@code clients}
+ * concurrent clients alternating {@code GET /api/lists} and a task page for
+ * {@code duration} after {@code warmup}. The read cache is disabled so every request
+ * reaches the database. Prints one JSON line with throughput and latency percentiles.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>(Map.of(
+                "mode", "platform", "clients", "200", "duration", "PT30S", "warmup", "PT10S",
+                "lists", "20", "tasks", "500"));
+        List<String> springArgs = new ArrayList<>();
+        for (String a : args) {
+            if (a.startsWith("--")) springArgs.add(a);
+            else opts.put(a.substring(0, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        String mode = opts.get("mode");
+        if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("mode=virtual needs Java 21 (build with -Pjdk21)");
+        }
+
+        // DevTools would restart the context in a second classloader mid-run.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> props = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--app.cache.read.type=none",
+                "--spring.threads.virtual.enabled=" + mode.equals("virtual")));
+        props.addAll(springArgs);
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(FullstackTodoApplication.class)
+                .run(props.toArray(String[]::new))) {
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            ObjectMapper json = new ObjectMapper();
+
+            JsonNode login = json.readTree(http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"load@mock.local\",\"password\":\"x\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString()).body());
+            String token = login.get("token").asText();
+            long userId = login.get("user").get("id").asLong();
+            List<Long> listIds = seed(ctx, userId, Integer.parseInt(opts.get("lists")), Integer.parseInt(opts.get("tasks")));
+
+            int clients = Integer.parseInt(opts.get("clients"));
+            Duration warmup = Duration.parse(opts.get("warmup"));
+            Duration duration = Duration.parse(opts.get("duration"));
+            List<URI> targets = new ArrayList<>();
+            targets.add(URI.create(base + "/api/lists?userId=" + userId));
+            listIds.forEach(id -> targets.add(URI.create(base + "/api/lists/" + id + "/tasks?limit=100")));
+
+            run(http, token, targets, clients, warmup, null);
+            Result r = run(http, token, targets, clients, duration, new ConcurrentLinkedQueue<>());
+            System.out.printf(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"clients\":%d,\"seconds\":%d,\"requests\":%d,\"errors\":%d,"
+                            + "\"throughput\":%.1f,\"p50_ms\":%.2f,\"p99_ms\":%.2f,\"max_ms\":%.2f}%n",
+                    mode, clients, duration.toSeconds(), r.requests, r.errors,
+                    r.requests / (double) duration.toSeconds(), r.percentile(0.50), r.percentile(0.99), r.percentile(1.0));
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext ctx, long userId, int lists, int tasks) {
+        ListService listService = ctx.getBean(ListService.class);
+        TaskService taskService = ctx.getBean(TaskService.class);
+        List<Long> ids = new ArrayList<>();
+        for (int l = 0; l < lists; l++) {
+            Long id = listService.create(userId, "Lista " + l).id();
+            ids.add(id);
+            List<TaskCreateItem> batch = new ArrayList<>();
+            for (int t = 0; t < tasks; t++) {
+                batch.add(new TaskCreateItem(id, "Tarefa " + t, "Descrição " + t));
+                if (batch.size() == TaskService.MAX_BATCH_SIZE || t == tasks - 1) {
+                    taskService.addAll(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Result run(HttpClient http, String token, List<URI> targets, int clients, Duration duration,
+                              Queue<long[]> samples) throws InterruptedException {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            pool.execute(() -> {
+                long[] latencies = new long[1 << 16];
+                int n = 0;
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    HttpRequest req = HttpRequest.newBuilder(targets.get(i % targets.size()))
+                            .header("Authorization", "Bearer " + token)
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        int status = http.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status != 200) errors.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                    latencies[n++] = System.nanoTime() - start;
+                }
+                if (samples != null) samples.add(Arrays.copyOf(latencies, n));
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        return samples == null ? null : new Result(samples, errors.get());
+    }
+
+    private static final class Result {
+        final long[] sorted;
+        final long requests;
+        final long errors;
+
+        Result(Queue<long[]> samples, long errors) {
+            this.sorted = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            this.requests = sorted.length;
+            this.errors = errors;
+        }
+
+        double percentile(double p) {
+            if (sorted.length == 0) return 0;
+            int i = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, i)] / 1e6;
+        }
+    }
+}
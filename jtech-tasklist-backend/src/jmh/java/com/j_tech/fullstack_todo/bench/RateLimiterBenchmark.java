@@ -0,0 +1,57 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.security.RateLimitProperties;
+import com.j_tech.fullstack_todo.security.RateLimiter;
+import com.j_tech.fullstack_todo.security.RateLimiter.RouteClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of one limiter decision with 16 threads. {@code sharedClient} puts every thread
+ * on the same bucket (worst case: all CAS on one word); {@code ownClient} gives each
+ * thread its own bucket, which is the normal case of many users. Limits are high enough
+ * that every call is admitted, so only the bookkeeping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private RateLimiter limiter;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Client {
+        String name;
+
+        @Setup
+        public void setup(RateLimiterBenchmark bench) {
+            name = "sub:" + bench.threadIds.incrementAndGet();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        RateLimitProperties.Limit unlimited = new RateLimitProperties.Limit(1_000_000_000L, 1e9);
+        limiter = new RateLimiter(new RateLimitProperties(true, Duration.ofMinutes(10), 0,
+                unlimited, unlimited, unlimited, unlimited, unlimited), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long sharedClient() {
+        return limiter.tryAcquire(RouteClass.READ, "sub:shared");
+    }
+
+    @Benchmark
+    public long ownClient(Client client) {
+        return limiter.tryAcquire(RouteClass.READ, client.name);
+    }
+}
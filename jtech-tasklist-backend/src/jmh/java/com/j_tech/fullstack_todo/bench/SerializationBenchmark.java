@@ -0,0 +1,62 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/** Entity to DTO mapping and Jackson serialization of large task and list payloads. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Task> entities;
+    private List<TaskDTO> tasks;
+    private List<ListDTO> lists;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        User user = User.builder().id(1L).name("bench").email("bench@mock.local").build();
+        TodoList list = TodoList.builder().id(1L).user(user).name("bench").build();
+        entities = new ArrayList<>(size);
+        lists = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entities.add(Task.builder().id((long) i).list(list).title("Tarefa " + i)
+                    .description("Descrição da tarefa número " + i).done(i % 3 == 0)
+                    .dueDate(LocalDate.of(2025, 1, 1).plusDays(i % 365)).rank(Integer.toString(i + 1, 36)).build());
+            lists.add(new ListDTO((long) i, "Lista " + i, 40, 10, 30, i, LocalDateTime.of(2025, 1, 1, 12, 0)));
+        }
+        tasks = mapToDTO();
+    }
+
+    @Benchmark
+    public List<TaskDTO> mapToDTO() {
+        List<TaskDTO> out = new ArrayList<>(entities.size());
+        for (Task t : entities) out.add(new TaskDTO(t.getId(), t.getTitle(), t.getDescription(), t.isDone(), t.getDueDate(), t.getRank()));
+        return out;
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() throws Exception {
+        return mapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeListSummaries() throws Exception {
+        return mapper.writeValueAsBytes(lists);
+    }
+}
@@ -0,0 +1,160 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.FullstackTodoApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start time of the application, each run in a fresh JVM:
+ * <pre>
+ *   mvn -Pjmh test-compile exec:exec -Djmh.main=com.j_tech.fullstack_todo.bench.StartupBenchmark
+ *   mvn -Pfast-startup package -DskipTests
+ *   mvn -Pjmh test-compile exec:exec -Djmh.main=com.j_tech.fullstack_todo.bench.StartupBenchmark \
+ *       -Djmh.args="jar=target/app/fullstack-todo-0.0.1-SNAPSHOT.jar profile=fast-startup
+ *                   jvm=-XX:SharedArchiveFile=app.jsa,-Dspring.aot.enabled=true out=target/startup-fast.json"
+ * </pre>
+ * Without {@code jar} the application runs from the benchmark's own classpath; with it, from
+ * the jar's directory, as in the CDS training run ({@code jvm} paths are relative to it). Every run
+ * boots against a fresh in-memory H2 database on a free port and measures, from process
+ * start: {@code ready_ms}, until {@code /actuator/health/readiness} answers 200, and
+ * {@code first_request_ms}, until a login and the user's list summaries (the first
+ * screen) have been served after that. {@code first_request_latency_ms} is those two
+ * requests alone, where a cold JIT and uncreated lazy beans show. Each run's output goes
+ * to {@code target/startup-<n>.log}; min/median/max over {@code runs} are printed and
+ * written as JSON to {@code out}.
+ */
+public final class StartupBenchmark {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "runs", "5", "jvm", "", "profile", "", "timeout", "PT180S", "out", "target/startup.json");
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(1)).build();
+
+    private record Run(double readyMs, double firstRequestMs, double firstRequestLatencyMs) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new TreeMap<>(DEFAULTS);
+        for (String a : args) opts.put(a.substring(0, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        int runs = Integer.parseInt(opts.get("runs"));
+        Duration timeout = Duration.parse(opts.get("timeout"));
+
+        List<Run> results = new ArrayList<>();
+        for (int i = 1; i <= runs; i++) {
+            Run r = run(opts, i, timeout);
+            System.err.printf(Locale.ROOT, "run %d: ready %.0f ms, first request %.0f ms%n", i, r.readyMs(), r.firstRequestMs());
+            results.add(r);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("options", opts);
+        report.put("ready_ms", stats(results.stream().mapToDouble(Run::readyMs).toArray()));
+        report.put("first_request_ms", stats(results.stream().mapToDouble(Run::firstRequestMs).toArray()));
+        report.put("first_request_latency_ms", stats(results.stream().mapToDouble(Run::firstRequestLatencyMs).toArray()));
+        report.put("runs", results);
+        String json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        System.out.println(json);
+        Path out = Path.of(opts.get("out"));
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        Files.writeString(out, json);
+    }
+
+    private static Run run(Map<String, String> opts, int n, Duration timeout) throws Exception {
+        int port = freePort();
+        List<String> cmd = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        for (String arg : opts.get("jvm").split(",")) if (!arg.isBlank()) cmd.add(arg.trim());
+        File dir = null;
+        if (opts.containsKey("jar")) {
+            // CDS only maps the archive when the classpath matches the training run's exactly.
+            File jar = new File(opts.get("jar")).getAbsoluteFile();
+            dir = jar.getParentFile();
+            cmd.addAll(List.of("-jar", jar.getName()));
+        } else {
+            cmd.addAll(List.of("-cp", System.getProperty("java.class.path"), FullstackTodoApplication.class.getName()));
+        }
+        cmd.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.devtools.restart.enabled=false",
+                "--app.rate-limit.enabled=false"));
+        if (!opts.get("profile").isBlank()) cmd.add("--spring.profiles.active=" + opts.get("profile"));
+
+        File log = new File("target/startup-" + n + ".log").getAbsoluteFile();
+        String base = "http://localhost:" + port;
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(cmd).directory(dir).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (status(HttpRequest.newBuilder(URI.create(base + "/actuator/health/readiness")).build()) != 200) {
+                if (!process.isAlive()) throw new IllegalStateException("Application exited during startup, see " + log);
+                if (System.nanoTime() > deadline) throw new IllegalStateException("Not ready after " + timeout + ", see " + log);
+                Thread.sleep(10);
+            }
+            long ready = System.nanoTime();
+            HttpResponse<String> login = HTTP.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"startup@mock.local\",\"password\":\"x\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            var body = new ObjectMapper().readTree(login.body());
+            int lists = status(HttpRequest.newBuilder(URI.create(base + "/api/lists?userId=" + body.at("/user/id").asLong()))
+                    .header("Authorization", "Bearer " + body.get("token").asText()).build());
+            if (login.statusCode() != 200 || lists != 200) throw new IllegalStateException("First requests failed, see " + log);
+            long served = System.nanoTime();
+            return new Run((ready - start) / 1e6, (served - start) / 1e6, (served - ready) / 1e6);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int status(HttpRequest request) throws IOException, InterruptedException {
+        try {
+            return HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (ConnectException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, Double> stats(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        Map<String, Double> s = new LinkedHashMap<>();
+        s.put("min", round(sorted[0]));
+        s.put("median", round(sorted[sorted.length / 2]));
+        s.put("max", round(sorted[sorted.length - 1]));
+        return s;
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10) / 10.0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
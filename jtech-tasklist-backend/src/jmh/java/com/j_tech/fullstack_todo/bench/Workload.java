@@ -0,0 +1,321 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.FullstackTodoApplication;
+import com.j_tech.fullstack_todo.datasource.ShardRouter;
+import com.j_tech.fullstack_todo.dto.BatchItemResult;
+import com.j_tech.fullstack_todo.dto.TaskCreateItem;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP workload over the whole API, for a baseline to compare changes against:
+ * <pre>
+ *   mvn -Pjmh test-compile exec:exec -Djmh.main=com.j_tech.fullstack_todo.bench.Workload
+ *   mvn -Pjmh test-compile exec:exec -Djmh.main=com.j_tech.fullstack_todo.bench.Workload \
+ *       -Djmh.args="rate=2000 users=500 duration=PT2M out=target/workload-2000.json"
+ *   mvn -Pjmh test-compile exec:exec -Djmh.main=com.j_tech.fullstack_todo.bench.Workload \
+ *       -Djmh.args="no-cache=true out=target/workload-no-cache.json"
+ * </pre>
+ * Boots the application on a random port with the production settings (H2 by default;
+ * further {@code --spring.*} or {@code --app.*} arguments are passed through), logs in
+ * {@code users} users and seeds
+ * each with {@code lists} lists of {@code tasks} tasks. Requests then arrive as a Poisson
+ * process at {@code rate} per second regardless of how fast responses come back, each
+ * for a random user and an operation drawn from {@code mix}:
+ * <ul>
+ *   <li>{@code login}: {@code POST /api/auth/login}</li>
+ *   <li>{@code lists}: {@code GET /api/lists} (list summaries)</li>
+ *   <li>{@code tasks}: {@code GET /api/lists/{id}/tasks}, first page</li>
+ *   <li>{@code toggle}: {@code PUT /api/tasks/{id}?done=}</li>
+ *   <li>{@code create}: {@code POST /api/tasks}</li>
+ * </ul>
+ * Latency runs from a request's scheduled start, not from when it was sent, so a stalled
+ * server is not hidden by the generator falling behind (coordinated omission). Arrivals
+ * beyond {@code max-in-flight} outstanding requests are not sent and count as
+ * {@code dropped}. After {@code warmup}, {@code duration} is measured; the report (per
+ * endpoint HdrHistogram p50/p99/p999/max, throughput and failures by status) is printed and written as JSON
+ * to {@code out}.
+ * <p>
+ * Rate limiting and the read cache stay on as in production; {@code no-rate-limit=true}
+ * and {@code no-cache=true} turn them off to measure without them. Each user sends
+ * {@code X-Forwarded-For} with an address of its own from 198.18.0.0/15 (the
+ * benchmarking range), so per-address login limits apply per simulated client, not to
+ * the whole generator on loopback; 429s show up as failures like any other status.
+ */
+public final class Workload {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("rate", "500"), Map.entry("duration", "PT60S"), Map.entry("warmup", "PT15S"),
+            Map.entry("users", "100"), Map.entry("lists", "5"), Map.entry("tasks", "200"), Map.entry("page", "50"),
+            Map.entry("mix", "login=2,lists=25,tasks=45,toggle=18,create=10"), Map.entry("max-in-flight", "2000"),
+            Map.entry("out", "target/workload.json"), Map.entry("no-cache", "false"), Map.entry("no-rate-limit", "false"));
+
+    private record Seeded(String email, String clientIp, String token, long userId, List<Long> listIds,
+                          List<Long> taskIds) {
+    }
+
+    /** {@code failures} counts non-2xx responses by status and client errors by exception class. */
+    private record Stats(ConcurrentHistogram latency, ConcurrentMap<String, AtomicLong> failures) {
+        Stats() {
+            this(new ConcurrentHistogram(3), new ConcurrentSkipListMap<>());
+        }
+
+        void fail(String reason) {
+            failures.computeIfAbsent(reason, k -> new AtomicLong()).incrementAndGet();
+        }
+
+        long errors() {
+            return failures.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+    }
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final AtomicLong created = new AtomicLong();
+    private final String base;
+
+    private Workload(String base) {
+        this.base = base;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new TreeMap<>(DEFAULTS);
+        List<String> springArgs = new ArrayList<>();
+        for (String a : args) {
+            if (a.startsWith("--")) springArgs.add(a);
+            else opts.put(a.substring(0, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        double rate = Double.parseDouble(opts.get("rate"));
+        Duration warmup = Duration.parse(opts.get("warmup"));
+        Duration duration = Duration.parse(opts.get("duration"));
+        Map<String, Integer> mix = parseMix(opts.get("mix"));
+
+        // DevTools would restart the context in a second classloader mid-run.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> props = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:workload-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        if (Boolean.parseBoolean(opts.get("no-cache"))) props.add("--app.cache.read.type=none");
+        if (Boolean.parseBoolean(opts.get("no-rate-limit"))) props.add("--app.rate-limit.enabled=false");
+        // A repeated --key=value is joined with commas, not overridden, so defaults are replaced here.
+        springArgs.forEach(a -> props.removeIf(p -> p.substring(0, p.indexOf('=')).equals(a.substring(0, a.indexOf('=')))));
+        props.addAll(springArgs);
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(FullstackTodoApplication.class)
+                .run(props.toArray(String[]::new))) {
+            Workload w = new Workload("http://localhost:" + ctx.getEnvironment().getProperty("local.server.port"));
+            long seedStart = System.nanoTime();
+            List<Seeded> users = w.seed(ctx, Integer.parseInt(opts.get("users")),
+                    Integer.parseInt(opts.get("lists")), Integer.parseInt(opts.get("tasks")));
+            Duration seedTime = Duration.ofNanos(System.nanoTime() - seedStart);
+
+            Map<String, Stats> stats = new TreeMap<>();
+            mix.keySet().forEach(op -> stats.put(op, new Stats()));
+            AtomicLong dropped = new AtomicLong();
+            w.drive(users, mix, rate, warmup, duration, Integer.parseInt(opts.get("max-in-flight")),
+                    Integer.parseInt(opts.get("page")), stats, dropped);
+
+            Map<String, Object> report = w.report(opts, seedTime, stats, dropped.get(), duration);
+            String out = w.json.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+            System.out.println(out);
+            Path file = Path.of(opts.get("out"));
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Files.writeString(file, out);
+        }
+    }
+
+    private List<Seeded> seed(ConfigurableApplicationContext ctx, int users, int lists, int tasks) throws Exception {
+        ListService listService = ctx.getBean(ListService.class);
+        TaskService taskService = ctx.getBean(TaskService.class);
+        ShardRouter router = ctx.getBean(ShardRouter.class);
+        List<Seeded> out = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            String email = "workload-" + u + "@mock.local";
+            String clientIp = "198." + (18 + (u >> 16 & 1)) + "." + (u >> 8 & 255) + "." + (u & 255);
+            JsonNode login = login(email, clientIp);
+            long userId = login.get("user").get("id").asLong();
+            List<Long> listIds = new ArrayList<>();
+            List<Long> taskIds = new ArrayList<>();
+            router.onBucketOf(userId, () -> {
+                for (int l = 0; l < lists; l++) {
+                    Long listId = listService.create(userId, "Lista " + l).id();
+                    listIds.add(listId);
+                    List<TaskCreateItem> batch = new ArrayList<>();
+                    for (int t = 0; t < tasks; t++) {
+                        batch.add(new TaskCreateItem(listId, "Tarefa " + t, "Descrição da tarefa " + t));
+                        if (batch.size() == TaskService.MAX_BATCH_SIZE || t == tasks - 1) {
+                            taskService.addAll(batch).items().stream()
+                                    .map(BatchItemResult::task).filter(Objects::nonNull)
+                                    .forEach(task -> taskIds.add(task.id()));
+                            batch = new ArrayList<>();
+                        }
+                    }
+                }
+                return null;
+            });
+            out.add(new Seeded(email, clientIp, login.get("token").asText(), userId, listIds, taskIds));
+        }
+        return out;
+    }
+
+    /** Poisson arrivals from one dispatcher thread; responses are handled on the client's executor. */
+    private void drive(List<Seeded> users, Map<String, Integer> mix, double rate, Duration warmup, Duration duration,
+                       int maxInFlight, int page, Map<String, Stats> stats, AtomicLong dropped) throws InterruptedException {
+        List<String> ops = new ArrayList<>(mix.keySet());
+        int[] cumulative = new int[ops.size()];
+        int sum = 0;
+        for (int i = 0; i < ops.size(); i++) cumulative[i] = sum += mix.get(ops.get(i));
+        int totalWeight = sum;
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double meanGapNanos = 1e9 / rate;
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            long scheduled = next;
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+
+            int pick = random.nextInt(totalWeight);
+            int i = 0;
+            while (cumulative[i] <= pick) i++;
+            String op = ops.get(i);
+            boolean measured = scheduled >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) dropped.incrementAndGet();
+                continue;
+            }
+            HttpRequest request = request(op, users.get(random.nextInt(users.size())), random, page);
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                inFlight.release();
+                if (!measured) return;
+                Stats s = stats.get(op);
+                s.latency().recordValue(Math.max(0, (System.nanoTime() - scheduled) / 1000));
+                if (error != null) s.fail(error.getClass().getSimpleName());
+                else if (response.statusCode() / 100 != 2) s.fail(String.valueOf(response.statusCode()));
+            });
+        }
+        // Let the last arrivals finish; whatever is still out after that is reported as lost.
+        if (!inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+            System.err.println((maxInFlight - inFlight.availablePermits()) + " requests still in flight after 30s");
+        }
+    }
+
+    private HttpRequest request(String op, Seeded user, Random random, int page) {
+        if (op.equals("login")) return loginRequest(user.email(), user.clientIp());
+        HttpRequest.Builder b = switch (op) {
+            case "lists" -> HttpRequest.newBuilder(URI.create(base + "/api/lists?userId=" + user.userId()));
+            case "tasks" -> HttpRequest.newBuilder(URI.create(base + "/api/lists/" + any(user.listIds(), random)
+                    + "/tasks?limit=" + page));
+            case "toggle" -> HttpRequest.newBuilder(URI.create(base + "/api/tasks/" + any(user.taskIds(), random)
+                    + "?done=" + random.nextBoolean())).PUT(HttpRequest.BodyPublishers.noBody());
+            case "create" -> HttpRequest.newBuilder(URI.create(base + "/api/tasks?listId=" + any(user.listIds(), random)
+                    + "&title=" + URLEncoder.encode("Nova " + created.incrementAndGet(), StandardCharsets.UTF_8)))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+            default -> throw new IllegalArgumentException("Unknown operation in mix: " + op);
+        };
+        return b.header("Authorization", "Bearer " + user.token()).header("X-Forwarded-For", user.clientIp()).build();
+    }
+
+    private HttpRequest loginRequest(String email, String clientIp) {
+        return HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", clientIp)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + email + "\",\"password\":\"x\"}"))
+                .build();
+    }
+
+    private Map<String, Object> report(Map<String, String> opts, Duration seedTime, Map<String, Stats> stats,
+                                       long dropped, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            Histogram h = e.getValue().latency().copy();
+            all.add(h);
+            errors += e.getValue().errors();
+            Map<String, Object> summary = summary(h, e.getValue().errors(), seconds);
+            summary.put("failures", e.getValue().failures());
+            endpoints.put(e.getKey(), summary);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("options", opts);
+        report.put("seed_seconds", seedTime.toMillis() / 1000.0);
+        report.put("dropped", dropped);
+        report.put("total", summary(all, errors, seconds));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static Map<String, Object> summary(Histogram h, long errors, double seconds) {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("requests", h.getTotalCount());
+        s.put("errors", errors);
+        s.put("throughput", round(h.getTotalCount() / seconds));
+        s.put("mean_ms", round(h.getMean() / 1000));
+        s.put("p50_ms", millis(h, 50));
+        s.put("p99_ms", millis(h, 99));
+        s.put("p999_ms", millis(h, 99.9));
+        s.put("max_ms", round(h.getMaxValue() / 1000.0));
+        return s;
+    }
+
+    private static double millis(Histogram h, double percentile) {
+        return round(h.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split("=");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) out.put(kv[0].trim(), weight);
+        }
+        if (out.isEmpty()) throw new IllegalArgumentException("mix has no operation with a positive weight");
+        return out;
+    }
+
+    private static long any(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private JsonNode login(String email, String clientIp) throws Exception {
+        HttpResponse<String> response = http.send(loginRequest(email, clientIp), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IllegalStateException("Login failed: " + response.statusCode());
+        return json.readTree(response.body());
+    }
+}
@@ -0,0 +1,91 @@
+package com.j_tech.fullstack_todo.bench;
+
+import com.j_tech.fullstack_todo.dto.ListDTO;
+import com.j_tech.fullstack_todo.dto.TaskDTO;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write paths whose reference lookups the second-level cache serves: adding a task
+ * (list lookup), renaming a list (list + owner) and creating a list (user lookup), with
+ * the cache off and on. Statements per operation are printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    private static final int LISTS = 100;
+
+    @Param({"false", "true"})
+    public boolean l2;
+
+    private ConfigurableApplicationContext ctx;
+    private ListService listService;
+    private TaskService taskService;
+    private Statistics stats;
+    private Long userId;
+    private final List<Long> listIds = new ArrayList<>();
+    private long ops;
+    private long renames;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctx = Benchmarks.boot("app.cache.l2.enabled=" + l2, "app.cache.read.type=none",
+                "spring.jpa.properties.hibernate.generate_statistics=true");
+        listService = ctx.getBean(ListService.class);
+        taskService = ctx.getBean(TaskService.class);
+        stats = ctx.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        userId = ctx.getBean(UserRepository.class).save(User.builder().name("writer").email("writer@mock.local").build()).getId();
+        for (int l = 0; l < LISTS; l++) listIds.add(listService.create(userId, "Lista " + l).id());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        stats.clear();
+        ops = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n  l2=%s: %.2f statements/op, L2 hits %d misses %d%n", l2,
+                (double) stats.getPrepareStatementCount() / Math.max(1, ops),
+                stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public TaskDTO addTask() {
+        long n = ops++;
+        return taskService.add(listIds.get((int) (n % LISTS)), "Tarefa " + n + "-" + System.nanoTime(), null);
+    }
+
+    @Benchmark
+    public ListDTO renameList() {
+        long n = renames++;
+        ops++;
+        return listService.rename(listIds.get((int) (n % LISTS)), "Lista " + (n % LISTS) + (n / LISTS % 2 == 0 ? "*" : ""));
+    }
+
+    @Benchmark
+    public ListDTO createList() {
+        return listService.create(userId, "Nova " + ops++ + "-" + System.nanoTime());
+    }
+}
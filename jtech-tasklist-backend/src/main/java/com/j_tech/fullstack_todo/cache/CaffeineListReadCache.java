@@ -0,0 +1,107 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.j_tech.fullstack_todo.dto.*;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Loads run on the calling thread <em>outside</em> Caffeine's map locks: a miss parks a
+ * future in the cache and concurrent readers of the same key wait on it. The blocking
+ * {@code Cache.get(key, loader)} would run the JDBC query inside
+ * {@code ConcurrentHashMap.compute}, which pins the carrier when requests run on
+ * virtual threads.
+ * <p>
+ * Both caches are bounded by what they hold, not by entry count: an entry weighs one
+ * plus its number of DTOs, so a user with hundreds of lists or a 500-task page costs
+ * what it occupies, and an empty result still counts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.read.type", havingValue = "caffeine", matchIfMissing = true)
+public class CaffeineListReadCache implements ListReadCache {
+
+    private final AsyncCache<ListSummaryKey, List<ListDTO>> summaries;
+    final AsyncCache<TaskPageKey, TaskPage> pages;
+
+    public CaffeineListReadCache(@Value("${app.cache.read.max-lists:100000}") long maxLists,
+                                 @Value("${app.cache.read.max-tasks:200000}") long maxTasks,
+                                 @Value("${app.cache.read.ttl:PT5M}") Duration ttl,
+                                 MeterRegistry registry) {
+        this.summaries = Caffeine.newBuilder()
+                .maximumWeight(maxLists)
+                .<ListSummaryKey, List<ListDTO>>weigher((key, lists) -> 1 + lists.size())
+                .expireAfterWrite(ttl).recordStats().buildAsync();
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxTasks)
+                .<TaskPageKey, TaskPage>weigher((key, page) -> 1 + page.items().size())
+                .expireAfterWrite(ttl).recordStats().buildAsync();
+        monitor(registry, summaries, "lists.summaries");
+        monitor(registry, pages, "lists.task-pages");
+    }
+
+    @Override
+    public List<ListDTO> summaries(ListSummaryKey key, Supplier<List<ListDTO>> loader) {
+        return load(summaries, key, loader);
+    }
+
+    @Override
+    public TaskPage taskPage(TaskPageKey key, Supplier<TaskPage> loader) {
+        return load(pages, key, loader);
+    }
+
+    @Override
+    public void evictUser(Long userId) {
+        // Older version keys of the same user may still be resident until the TTL; drop them all.
+        summaries.asMap().keySet().removeIf(k -> k.userId().equals(userId));
+    }
+
+    @Override
+    public void evictList(Long listId) {
+        // Linear in the (bounded) number of cached pages; writes are rare next to reads,
+        // and it keeps eviction exact without a secondary list -> keys index.
+        pages.asMap().keySet().removeIf(k -> k.listId().equals(listId));
+    }
+
+    private static <K, V> V load(AsyncCache<K, V> cache, K key, Supplier<V> loader) {
+        CompletableFuture<V> existing = cache.getIfPresent(key);
+        if (existing == null) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            existing = cache.asMap().putIfAbsent(key, mine);
+            if (existing == null) {
+                try {
+                    V value = loader.get();
+                    mine.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    cache.asMap().remove(key, mine);
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private static void monitor(MeterRegistry registry, AsyncCache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .tag("cache", name)
+                .register(registry);
+    }
+}
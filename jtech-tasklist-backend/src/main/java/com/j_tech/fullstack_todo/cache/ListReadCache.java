@@ -0,0 +1,28 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.j_tech.fullstack_todo.dto.*;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of {@code ListService}'s read paths. Implementations are
+ * selected with {@code app.cache.read.type}; the in-process one is the default, and a
+ * shared implementation only has to honour the same eviction contract.
+ * <p>
+ * Keys carry the list versions the caller read, so an entry is only ever served for the
+ * state it was loaded at: a missed eviction (another instance's write, a failed
+ * after-commit hook) costs memory until the TTL, never a stale body under a fresh ETag.
+ */
+public interface ListReadCache {
+
+    List<ListDTO> summaries(ListSummaryKey key, Supplier<List<ListDTO>> loader);
+
+    TaskPage taskPage(TaskPageKey key, Supplier<TaskPage> loader);
+
+    /** Drops the list summaries of one user. */
+    void evictUser(Long userId);
+
+    /** Drops every cached task page (any filter, cursor or size) of one list. */
+    void evictList(Long listId);
+}
@@ -0,0 +1,9 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.j_tech.fullstack_todo.dto.ListVersion;
+
+import java.util.List;
+
+/** A user's lists as of the given (id, version) pairs; adding, removing or touching a list moves readers to a new key. */
+public record ListSummaryKey(Long userId, List<ListVersion> versions) {
+}
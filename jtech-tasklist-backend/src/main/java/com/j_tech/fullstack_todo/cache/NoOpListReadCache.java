@@ -0,0 +1,31 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.j_tech.fullstack_todo.dto.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(name = "app.cache.read.type", havingValue = "none")
+public class NoOpListReadCache implements ListReadCache {
+
+    @Override
+    public List<ListDTO> summaries(ListSummaryKey key, Supplier<List<ListDTO>> loader) {
+        return loader.get();
+    }
+
+    @Override
+    public TaskPage taskPage(TaskPageKey key, Supplier<TaskPage> loader) {
+        return loader.get();
+    }
+
+    @Override
+    public void evictUser(Long userId) {
+    }
+
+    @Override
+    public void evictList(Long listId) {
+    }
+}
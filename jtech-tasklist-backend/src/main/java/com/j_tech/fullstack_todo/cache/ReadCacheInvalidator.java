@@ -0,0 +1,22 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts after commit: evicting earlier would let a concurrent read re-cache the
+ * pre-commit state.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadCacheInvalidator {
+    private final ListReadCache cache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ChangeEvent e) {
+        cache.evictUser(e.userId());
+        if (e.affectsTasks()) cache.evictList(e.listId());
+    }
+}
@@ -0,0 +1,7 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.j_tech.fullstack_todo.dto.TaskFilter;
+
+/** {@code version} is the list's version when the page was requested; a write moves readers to a new key. */
+public record TaskPageKey(Long listId, long version, TaskFilter filter, String cursor, int limit) {
+}
@@ -0,0 +1,95 @@
+package com.j_tech.fullstack_todo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache on Caffeine (through JCache) for the rarely changing
+ * {@code User} and {@code TodoList} rows that every mutation looks up. Every region is
+ * created here with an explicit bound; Hibernate is told to fail on any other region,
+ * so nothing is ever cached unbounded by accident. Hit/miss/put counts per region are
+ * published as {@code hibernate.second.level.cache.*} (hibernate-micrometer).
+ * <p>
+ * {@code TodoList.version} is bumped by native SQL with per-id eviction (see
+ * {@code TodoListRepositoryCustomImpl}); a bulk HQL update would wipe the whole region
+ * on every task write.
+ * <p>
+ * Regions are node-local, so an entry can outlive a write or delete made through
+ * another instance until its TTL. Conditional writes therefore read the list's
+ * {@code version} past the cache ({@code TodoListRepositoryCustom.findUncached}), and
+ * writes that trust the cached owner lookup check that their statement hit a row.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USERS_REGION = "users";
+    public static final String LISTS_REGION = "todo_lists";
+    private static final String QUERY_REGION = "default-query-results-region";
+    private static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /** One manager per context (unique URI), so test contexts sharing a JVM do not share regions. */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.l2.users.max-size:10000}") long usersSize,
+            @Value("${app.cache.l2.users.ttl:PT30M}") Duration usersTtl,
+            @Value("${app.cache.l2.lists.max-size:50000}") long listsSize,
+            @Value("${app.cache.l2.lists.ttl:PT10M}") Duration listsTtl,
+            @Value("${app.cache.l2.queries.max-size:10000}") long queriesSize,
+            @Value("${app.cache.l2.queries.ttl:PT10M}") Duration queriesTtl) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        manager.createCache(USERS_REGION, region(usersSize, usersTtl));
+        manager.createCache(LISTS_REGION, region(listsSize, listsTtl));
+        manager.createCache(QUERY_REGION, region(queriesSize, queriesTtl));
+        // Hibernate requires update timestamps to outlive every cached query result: never evicted.
+        manager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>().setStoreByValue(false).setStatisticsEnabled(true));
+        return manager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return props -> {
+            props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            props.put(AvailableSettings.USE_QUERY_CACHE, true);
+            props.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            props.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            props.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    /** hibernate-jcache on the classpath turns the cache on by default, so off has to be explicit. */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "false", matchIfMissing = true)
+    public HibernatePropertiesCustomizer secondLevelCacheDisabledCustomizer() {
+        return props -> {
+            props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            props.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        // By reference: Hibernate already stores disassembled, immutable entries.
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                .setStoreByValue(false)
+                .setStatisticsEnabled(true);
+    }
+}
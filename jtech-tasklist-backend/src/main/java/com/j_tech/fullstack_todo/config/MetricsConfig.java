@@ -0,0 +1,32 @@
+package com.j_tech.fullstack_todo.config;
+
+import com.j_tech.fullstack_todo.metrics.EntityLoadCountingIntegrator;
+import com.j_tech.fullstack_todo.metrics.SqlMetricsSessionListener;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    /** Enables {@code @Timed} on the service classes. */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlMetricsCustomizer() {
+        return props -> {
+            props.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlMetricsSessionListener.class.getName());
+            props.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+        };
+    }
+}
@@ -1,9 +1,19 @@
 package com.j_tech.fullstack_todo.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.controller.ListController;
+import com.j_tech.fullstack_todo.datasource.ShardContextFilter;
+import com.j_tech.fullstack_todo.datasource.ShardRouter;
 import com.j_tech.fullstack_todo.security.JwtAuthenticationFilter;
+import com.j_tech.fullstack_todo.security.RateLimitFilter;
+import com.j_tech.fullstack_todo.security.RateLimitProperties;
+import com.j_tech.fullstack_todo.security.RateLimiter;
+import com.j_tech.fullstack_todo.service.IdempotencyService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -19,12 +29,22 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimits;
+    private final ObjectMapper mapper;
+    private final ShardRouter shards;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimiter rateLimiter,
+                          RateLimitProperties rateLimits, ObjectMapper mapper, ShardRouter shards) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimiter = rateLimiter;
+        this.rateLimits = rateLimits;
+        this.mapper = mapper;
+        this.shards = shards;
     }
 
     @Value("${app.cors.allowed-origins:http://localhost:3000}")
@@ -37,12 +57,23 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // The dispatch back after a streaming body or async error was authorized as
+                        // the original request; the bearer filter does not run again for it.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/logout").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/auth/me").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        if (shards.enabled()) {
+            http.addFilterAfter(new ShardContextFilter(), JwtAuthenticationFilter.class);
+        }
+        if (rateLimits.enabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimiter, mapper), JwtAuthenticationFilter.class);
+        }
 
         return http.build();
     }
@@ -52,8 +83,8 @@ public class SecurityConfig {
         CorsConfiguration cors = new CorsConfiguration();
         cors.setAllowedOrigins(allowedOrigins);
         cors.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        cors.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
-        cors.setExposedHeaders(List.of("Authorization"));
+        cors.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "If-Match", "If-None-Match", "Last-Event-ID", IdempotencyService.HEADER));
+        cors.setExposedHeaders(List.of("Authorization", "ETag", "Retry-After", IdempotencyService.REPLAYED_HEADER, ListController.NEXT_CURSOR_HEADER));
         cors.setAllowCredentials(false);
         cors.setMaxAge(3600L);
 
@@ -0,0 +1,24 @@
+package com.j_tech.fullstack_todo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Keeps {@code spring.main.lazy-initialization=true} (the {@code fast-startup} profile)
+ * safe: beans with {@code @Scheduled} methods are only registered with the scheduler
+ * once created, so they stay eager. Event listeners, filters and aspects work lazily.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+        return (name, definition, type) -> type != null && !MethodIntrospector.selectMethods(type,
+                (ReflectionUtils.MethodFilter) m -> AnnotatedElementUtils.hasAnnotation(m, Scheduled.class)).isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+package com.j_tech.fullstack_todo.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.datasource.ShardRouter;
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.repository.TaskRepository;
+import com.j_tech.fullstack_todo.repository.TodoListRepository;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.security.JwtService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Runs the hot paths before the instance reports ready: JWT signing and verification,
+ * JSON (de)serialization of the main DTOs and the read queries behind list summaries,
+ * task pages and the agenda. Application runners finish before readiness turns
+ * {@code ACCEPTING_TRAFFIC}, so the first real requests find Hibernate's query plans
+ * built, the lazy beans created and the code compiled. Queries use id -1, which matches
+ * nothing; with sharding each shard is visited. Stops after {@code app.warmup.iterations}
+ * or {@code app.warmup.max-duration}, whichever comes first.
+ * <p>
+ * With {@code app.warmup.exit=true} the JVM exits once the warm-up is done. The
+ * {@code fast-startup} build's CDS training run uses it, so the archive holds the classes
+ * the warm-up loads (query plans, serializers, JWT) and not only those of the refresh.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class StartupWarmup implements ApplicationRunner {
+    private static final long NONE = -1L;
+
+    private final JwtService jwt;
+    private final ObjectMapper mapper;
+    private final UserRepository users;
+    private final TodoListRepository lists;
+    private final TaskRepository tasks;
+    private final TransactionTemplate readOnly;
+    private final ShardRouter router;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final boolean exit;
+    private final ApplicationContext context;
+    private volatile int completed;
+
+    public StartupWarmup(JwtService jwt, ObjectMapper mapper, UserRepository users, TodoListRepository lists,
+                         TaskRepository tasks, TransactionTemplate tx, ShardRouter router,
+                         @Value("${app.warmup.iterations:1000}") int iterations,
+                         @Value("${app.warmup.max-duration:PT10S}") Duration maxDuration,
+                         @Value("${app.warmup.exit:false}") boolean exit, ApplicationContext context) {
+        this.jwt = jwt;
+        this.mapper = mapper;
+        this.users = users;
+        this.lists = lists;
+        this.tasks = tasks;
+        this.readOnly = new TransactionTemplate(tx.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        this.router = router;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.exit = exit;
+        this.context = context;
+    }
+
+    /** Iterations the last run completed; 0 until it is done. */
+    public int completedIterations() {
+        return completed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        TaskDTO task = new TaskDTO(1L, "Comprar pão", "Na padaria da esquina", false, LocalDate.now(), "i");
+        ListDTO list = new ListDTO(1L, "Casa", 3L, 1L, 7L, LocalDateTime.now());
+        ListWithTasks withTasks = ListWithTasks.of(list, List.of(task, task, task));
+        int i = 0;
+        for (; i < iterations && System.nanoTime() < deadline; i++) {
+            String token = jwt.generateToken(String.valueOf(i), Map.of("name", "warmup", "email", "warmup@local"));
+            jwt.verify(token);
+            try {
+                mapper.writeValueAsBytes(List.of(list, list));
+                mapper.writeValueAsBytes(withTasks);
+                mapper.writeValueAsBytes(new TaskPage(List.of(task, task), "cursor"));
+                byte[] batch = mapper.writeValueAsBytes(List.of(new TaskCreateItem(1L, "Tarefa", "Descrição")));
+                mapper.readValue(batch, new TypeReference<List<TaskCreateItem>>() {
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Statement preparation and result mapping compile much like the CPU paths,
+            // but every round trip costs a connection; a tenth of the rounds is plenty.
+            if (i % 10 == 0) router.onEachShard(() -> readOnly.execute(s -> queries()));
+        }
+        completed = i;
+        log.info("Warm-up done: {} iterations in {} ms", i, (System.nanoTime() - start) / 1_000_000);
+        if (exit) System.exit(SpringApplication.exit(context));
+    }
+
+    private Object queries() {
+        LocalDate today = LocalDate.now();
+        users.findByEmail("warmup@invalid");
+        lists.findSummariesByUserId(NONE);
+        lists.findVersionsByUserId(NONE);
+        lists.findSummaryById(NONE);
+        tasks.findPage(NONE, new TaskFilter(null, null, null, false), null, null, 51);
+        tasks.findPage(NONE, new TaskFilter(false, null, null, false), "i", NONE, 51);
+        tasks.findAgenda(NONE, today, today.plusDays(7), null, null, 51);
+        tasks.countAgendaByDay(NONE, today, today.plusDays(7));
+        tasks.findRecordsByIdIn(List.of(NONE));
+        try (Stream<ListTaskRow> rows = tasks.streamOpenTopN(NONE, 20)) {
+            rows.forEach(r -> { });
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.j_tech.fullstack_todo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs {@code StreamingResponseBody} and {@code Callable} handlers (export, import, lists
+ * with tasks) on a pool of their own instead of the shared application task executor, so
+ * long downloads cannot starve {@code @Async} work or each other without limit. At most
+ * {@code app.async.threads} bodies stream at once and {@code app.async.queue-capacity}
+ * wait; past that the request is turned away with 503. The pool is not a bean, so Spring
+ * Boot still creates its own executor for everything else, and applies the
+ * {@link TaskDecorator} bean (the caller's shard, when sharding is on) only to that one:
+ * it is set here too.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    final ThreadPoolTaskExecutor executor;
+
+    public WebAsyncConfig(@Value("${app.async.threads:16}") int threads,
+                          @Value("${app.async.queue-capacity:64}") int queueCapacity,
+                          MeterRegistry registry, ObjectProvider<TaskDecorator> taskDecorator) {
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(registry, executor.getThreadPoolExecutor(), "mvc.async");
+    }
+
+    /** The timeout stays {@code spring.mvc.async.request-timeout}, applied by Spring Boot. */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,31 @@
+package com.j_tech.fullstack_todo.controller;
+
+import com.j_tech.fullstack_todo.dto.AgendaDay;
+import com.j_tech.fullstack_todo.dto.AgendaPage;
+import com.j_tech.fullstack_todo.service.ListService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/agenda")
+@RequiredArgsConstructor
+public class AgendaController {
+    private final ListService lists;
+
+    @GetMapping
+    public ResponseEntity<List<AgendaDay>> agenda(@RequestParam Long userId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "" + ListService.DEFAULT_PAGE_SIZE) int limit) {
+        AgendaPage page = lists.agenda(userId, from, to, cursor, limit);
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        if (page.hasNext()) res.header(ListController.NEXT_CURSOR_HEADER, page.nextCursor());
+        return res.body(page.days());
+    }
+}
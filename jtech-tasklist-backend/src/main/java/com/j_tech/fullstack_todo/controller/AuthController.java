@@ -1,17 +1,21 @@
 package com.j_tech.fullstack_todo.controller;
 
+import com.j_tech.fullstack_todo.datasource.ShardContext;
+import com.j_tech.fullstack_todo.datasource.ShardIds;
 import com.j_tech.fullstack_todo.dto.UserDTO;
 import com.j_tech.fullstack_todo.model.User;
 import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.security.AuthenticatedUser;
 import com.j_tech.fullstack_todo.security.JwtService;
+import com.j_tech.fullstack_todo.service.RefreshTokenService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -19,41 +23,69 @@ import java.util.Optional;
 public class AuthController {
 
     public record LoginRequest(@NotBlank String username, @NotBlank String password) {}
-    public record LoginResponse(String token, UserDTO user) {}
+    public record RefreshRequest(@NotBlank String refreshToken) {}
+    /** {@code token} is the access token, valid for {@code expiresIn} seconds. */
+    public record LoginResponse(String token, String refreshToken, long expiresIn, UserDTO user) {}
 
     private final UserRepository users;
     private final JwtService jwt;
+    private final RefreshTokenService refreshTokens;
 
-    public AuthController(UserRepository users, JwtService jwt) {
+    public AuthController(UserRepository users, JwtService jwt, RefreshTokenService refreshTokens) {
         this.users = users;
         this.jwt = jwt;
+        this.refreshTokens = refreshTokens;
     }
 
+    /** Runs on the shard of the e-mail's bucket, where the user is or will be stored. */
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest body) {
         String email = body.username();
-        Optional<User> maybe = users.findByEmail(email);
-        User user = maybe.orElseGet(() -> {
-            User u = new User();
-            u.setEmail(email);
-            u.setName(email.split("@")[0]);
-            return users.save(u);
+        return ShardContext.onBucket(ShardIds.bucketOf(email), () -> {
+            User user = users.findByEmail(email).orElseGet(() -> {
+                User u = new User();
+                u.setEmail(email);
+                u.setName(email.split("@")[0]);
+                return users.save(u);
+            });
+            return ResponseEntity.ok(tokens(user, refreshTokens.issue(user.getId())));
         });
+    }
 
-        String token = jwt.generateToken(
-                Map.of("name", user.getName(), "email", user.getEmail()).toString()
-        );
-        return ResponseEntity.ok(new LoginResponse(token, UserDTO.from(user)));
+    /** Exchanges a refresh token for a new access token and the next refresh token. */
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshRequest body) {
+        return onTokenShard(body.refreshToken(), () -> {
+            RefreshTokenService.Issued next = refreshTokens.rotate(body.refreshToken());
+            User user = users.findById(next.userId()).orElseThrow();
+            return ResponseEntity.ok(tokens(user, next.token()));
+        });
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshRequest body) {
+        return onTokenShard(body.refreshToken(), () -> {
+            refreshTokens.revoke(body.refreshToken());
+            return ResponseEntity.noContent().build();
+        });
     }
 
+    /** Answered from the access token's claims; no database access. */
     @GetMapping("/me")
     public ResponseEntity<UserDTO> me(Authentication authentication) {
-        if (authentication == null || authentication.getPrincipal() == null) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
             return ResponseEntity.noContent().build();
         }
-        String userId = authentication.getPrincipal().toString();
-        return users.findById(Long.parseLong(userId))
-                .map(u -> ResponseEntity.ok(UserDTO.from(u)))
-                .orElseGet(() -> ResponseEntity.noContent().build());
+        return ResponseEntity.ok(user.toDTO());
+    }
+
+    /** Refresh and logout carry no access token; the refresh token names its bucket. */
+    private static <T> T onTokenShard(String refreshToken, Supplier<T> work) {
+        Integer bucket = RefreshTokenService.bucketOf(refreshToken);
+        return bucket != null ? ShardContext.onBucket(bucket, work) : work.get();
+    }
+
+    private LoginResponse tokens(User user, String refreshToken) {
+        return new LoginResponse(jwt.generateAccessToken(user), refreshToken, jwt.getExpirationSeconds(), UserDTO.from(user));
     }
 }
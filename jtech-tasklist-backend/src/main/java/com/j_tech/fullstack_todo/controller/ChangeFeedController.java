@@ -0,0 +1,21 @@
+package com.j_tech.fullstack_todo.controller;
+
+import com.j_tech.fullstack_todo.event.ChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+    private final ChangeFeed feed;
+
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam Long userId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return feed.subscribe(userId, lastEventId);
+    }
+}
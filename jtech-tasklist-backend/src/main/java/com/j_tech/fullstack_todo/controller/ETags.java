@@ -0,0 +1,59 @@
+package com.j_tech.fullstack_todo.controller;
+
+import com.j_tech.fullstack_todo.dto.ListVersion;
+import com.j_tech.fullstack_todo.exception.PreconditionFailedException;
+
+import java.util.*;
+
+/**
+ * Strong ETags derived from {@code TodoList.version}. A list-scoped resource carries
+ * {@code "v<version>"}; the per-user list collection hashes every (id, version) pair,
+ * so adding, removing or touching any list changes it. Task pages of a list with
+ * buffered writes carry {@code "v<version>.p<sequence>"}.
+ * <p>
+ * Tasks have no tag of their own: writes to a task answer with, and check If-Match
+ * against, its list's version, so a stale page rejects an edit to any of its tasks.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"v" + version + "\"";
+    }
+
+    static String of(long version, long pendingSequence) {
+        return pendingSequence == 0 ? of(version) : "\"v" + version + ".p" + pendingSequence + "\"";
+    }
+
+    static String of(List<ListVersion> versions) {
+        long h = 1125899906842597L;
+        for (ListVersion v : versions) {
+            h = 31 * h + v.id();
+            h = 31 * h + v.version();
+        }
+        return "\"c" + versions.size() + "-" + Long.toHexString(h) + "\"";
+    }
+
+    /** Lists with their first {@code taskLimit} open tasks; the limit and any buffered writes change the tag. */
+    static String of(List<ListVersion> versions, int taskLimit, long pendingSequence) {
+        String base = of(versions);
+        String suffix = ".t" + taskLimit + (pendingSequence == 0 ? "" : ".p" + pendingSequence);
+        return base.substring(0, base.length() - 1) + suffix + "\"";
+    }
+
+    /** Version named by an If-Match header, or null when absent or {@code *}. */
+    static Long parseIfMatch(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) return null;
+        String tag = header.trim();
+        if (tag.length() < 4 || !tag.startsWith("\"v") || !tag.endsWith("\""))
+            throw new PreconditionFailedException("If-Match inválido");
+        int end = tag.indexOf(".p");
+        try {
+            return Long.parseLong(tag.substring(2, end > 0 ? end : tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match inválido");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.j_tech.fullstack_todo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.exception.ServerBusyException;
+import com.j_tech.fullstack_todo.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * At most {@code app.export.max-concurrent} exports and imports stream at once, on this
+ * instance; one more gets 503 with Retry-After rather than a thread of the async pool.
+ */
+@RestController
+@RequestMapping("/api")
+public class ExportController {
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(10);
+
+    private final ExportService exports;
+    private final ObjectMapper mapper;
+    private final Semaphore streams;
+
+    public ExportController(ExportService exports, ObjectMapper mapper,
+                            @Value("${app.export.max-concurrent:4}") int maxConcurrent) {
+        this.exports = exports;
+        this.mapper = mapper;
+        this.streams = new Semaphore(maxConcurrent);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Long userId, HttpServletRequest request) {
+        holdSlot(request);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("tasklist-" + userId + ".ndjson").build().toString())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> exports.export(userId, out));
+    }
+
+    /** Body is an export; the response streams one progress line per committed batch. */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importAll(@RequestParam Long userId, HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        holdSlot(request);
+        StreamingResponseBody body = out -> exports.importFrom(userId, in, p -> {
+            try {
+                out.write(mapper.writeValueAsBytes(p));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Takes a slot for the body about to be returned, given back as soon as the body has
+     * run ({@code postProcess}). A body the async pool rejects never runs, so the slot is
+     * also given back when the async request completes, whichever comes first.
+     */
+    private void holdSlot(HttpServletRequest request) {
+        if (!streams.tryAcquire()) throw new ServerBusyException("Limite de exportações simultâneas atingido", RETRY_AFTER);
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) streams.release();
+        };
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportController.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void postProcess(NativeWebRequest req, Callable<T> task, Object result) {
+                        release.run();
+                    }
+
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest req, Callable<T> task) {
+                        release.run();
+                    }
+                });
+    }
+}
@@ -0,0 +1,23 @@
+package com.j_tech.fullstack_todo.controller;
+
+import com.j_tech.fullstack_todo.service.IdempotencyService;
+import org.springframework.http.ResponseEntity;
+
+import java.security.Principal;
+
+/** 200 with the (possibly replayed) body; replays are marked with {@code Idempotent-Replayed: true}. */
+final class IdempotentResponses {
+
+    private IdempotentResponses() {
+    }
+
+    static <T> ResponseEntity<T> ok(IdempotencyService.Result<T> result) {
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        if (result.replayed()) res.header(IdempotencyService.REPLAYED_HEADER, "true");
+        return res.body(result.body());
+    }
+
+    static String principal(Principal principal) {
+        return principal == null ? "" : principal.getName();
+    }
+}
@@ -1,33 +1,94 @@
 package com.j_tech.fullstack_todo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.service.ArchiveService;
+import com.j_tech.fullstack_todo.service.IdempotencyService;
 import com.j_tech.fullstack_todo.service.ListService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.time.*;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/lists")
 @RequiredArgsConstructor
 public class ListController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ListService lists;
+    private final ArchiveService archive;
+    private final IdempotencyService idempotency;
+    private final ObjectMapper mapper;
 
 
+    /**
+     * Tagged from the summaries being served, whose versions also key the read cache: the
+     * tag can never describe newer lists than the body. Costs the same as a version-only
+     * check when the summaries are cached.
+     */
     @GetMapping
-    public List<ListDTO> all(@RequestParam Long userId) {
-        return lists.findAll(userId);
+    public ResponseEntity<List<ListDTO>> all(@RequestParam Long userId, WebRequest request) {
+        List<ListDTO> body = lists.findAll(userId);
+        String etag = ETags.of(body.stream().map(l -> new ListVersion(l.id(), l.version())).toList());
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    /**
+     * Lists with their first {@code limit} open tasks for the initial page load, in two
+     * queries. The array is written as each list is merged, never built in full, on the
+     * bounded streaming pool of {@link com.j_tech.fullstack_todo.config.WebAsyncConfig};
+     * when that pool is full the client gets 503 and falls back on its cached copy.
+     */
+    @GetMapping(params = "include=tasks")
+    public ResponseEntity<StreamingResponseBody> allWithTasks(@RequestParam Long userId,
+                                                              @RequestParam(defaultValue = "" + ListService.DEFAULT_PREVIEW_SIZE) int limit,
+                                                              WebRequest request) {
+        List<ListVersion> versions = lists.versions(userId);
+        long pending = versions.stream().mapToLong(v -> lists.pendingWrites(v.id())).max().orElse(0);
+        String etag = ETags.of(versions, Math.max(1, Math.min(limit, ListService.MAX_PREVIEW_SIZE)), pending);
+        if (request.checkNotModified(etag)) return null;
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                lists.withOpenTasks(userId, versions, limit, l -> {
+                    try {
+                        mapper.writeValue(json, l);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PostMapping
-    public ListDTO create(@RequestParam Long userId, @RequestParam String name) {
-        return lists.create(userId, name);
+    public ResponseEntity<ListDTO> create(@RequestParam Long userId, @RequestParam String name,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                          Principal principal) {
+        return IdempotentResponses.ok(idempotency.execute(IdempotentResponses.principal(principal), "list.create", idempotencyKey,
+                List.of(userId, name), () -> lists.create(userId, name)));
     }
 
     @PutMapping("/{id}")
-    public ListDTO rename(@PathVariable Long id, @RequestParam String name) {
-        return lists.rename(id, name);
+    public ResponseEntity<ListDTO> rename(@PathVariable Long id, @RequestParam String name,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ListDTO l = lists.rename(id, name, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(l.version())).body(l);
     }
 
     @DeleteMapping("/{id}")
@@ -37,7 +98,35 @@ public class ListController {
     }
 
     @GetMapping("/{id}/tasks")
-    public List<TaskDTO> tasks(@PathVariable Long id) {
-        return lists.tasks(id);
+    public ResponseEntity<List<TaskDTO>> tasks(@PathVariable Long id,
+                                               @RequestParam(required = false) Boolean done,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                               @RequestParam(defaultValue = "asc") String sort,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "" + ListService.DEFAULT_PAGE_SIZE) int limit,
+                                               WebRequest request) {
+        // Pages are a pure function of (URL, list version), so the version alone decides
+        // 304 without reading or serializing any task. The same version keys the cached
+        // page: the body is never older than the tag it is served with.
+        long version = lists.version(id);
+        String etag = ETags.of(version, lists.pendingWrites(id));
+        if (request.checkNotModified(etag)) return null;
+        TaskFilter filter = new TaskFilter(done, dueFrom, dueTo, "desc".equalsIgnoreCase(sort));
+        TaskPage page = lists.tasks(id, version, filter, cursor, limit);
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok().eTag(etag);
+        if (page.hasNext()) res.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        return res.body(page.items());
+    }
+
+    /** Archived (completed, older than {@code app.archive.after}) tasks of the list. */
+    @GetMapping("/{id}/archive")
+    public ResponseEntity<List<ArchivedTaskDTO>> archive(@PathVariable Long id,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "" + ListService.DEFAULT_PAGE_SIZE) int limit) {
+        ArchivePage page = archive.page(id, cursor, limit);
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        if (page.hasNext()) res.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        return res.body(page.items());
     }
-}
\ No newline at end of file
+}
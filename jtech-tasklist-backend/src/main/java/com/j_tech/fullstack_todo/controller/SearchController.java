@@ -0,0 +1,28 @@
+package com.j_tech.fullstack_todo.controller;
+
+import com.j_tech.fullstack_todo.dto.SearchHit;
+import com.j_tech.fullstack_todo.dto.SearchPage;
+import com.j_tech.fullstack_todo.search.TaskSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+    private final TaskSearchService search;
+
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(@RequestParam Long userId,
+                                                  @RequestParam String q,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "" + TaskSearchService.DEFAULT_PAGE_SIZE) int limit) {
+        SearchPage page = search.search(userId, q, cursor, limit);
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok();
+        if (page.hasNext()) res.header(ListController.NEXT_CURSOR_HEADER, page.nextCursor());
+        return res.body(page.items());
+    }
+}
@@ -1,31 +1,59 @@
 package com.j_tech.fullstack_todo.controller;
 
-import com.j_tech.fullstack_todo.dto.TaskDTO;
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.service.IdempotencyService;
 import com.j_tech.fullstack_todo.service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.util.*;
 
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskService tasks;
+    private final IdempotencyService idempotency;
 
 
     @PostMapping
-    public TaskDTO add(@RequestParam Long listId, @RequestParam String title, @RequestParam(required = false) String description) {
-        return tasks.add(listId, title, description);
+    public ResponseEntity<TaskDTO> add(@RequestParam Long listId, @RequestParam String title,
+                                       @RequestParam(required = false) String description,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                       Principal principal) {
+        return IdempotentResponses.ok(idempotency.execute(IdempotentResponses.principal(principal), "task.add", idempotencyKey,
+                Arrays.asList(listId, title, description), () -> tasks.add(listId, title, description)));
     }
 
 
+    /**
+     * If-Match takes the version of the task's list (the ETag of its task page or of a
+     * previous write), not of the task: any change to the list since then, even to
+     * another task, fails with 412 and the client re-reads the page before retrying.
+     */
     @PutMapping("/{id}")
-    public TaskDTO update(@PathVariable Long id,
-                          @RequestParam(required = false) String title,
-                          @RequestParam(required = false) String description,
-                          @RequestParam(required = false) Boolean done) {
-        return tasks.update(id, title, description, done);
+    public ResponseEntity<TaskDTO> update(@PathVariable Long id,
+                                          @RequestParam(required = false) String title,
+                                          @RequestParam(required = false) String description,
+                                          @RequestParam(required = false) Boolean done,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<TaskDTO> t = tasks.update(id, title, description, done, ETags.parseIfMatch(ifMatch));
+        // Buffered: no tag, so the client re-reads the page before its next If-Match.
+        if (t.version() == null) return ResponseEntity.ok(t.body());
+        return ResponseEntity.ok().eTag(ETags.of(t.version())).body(t.body());
+    }
+
+
+    /** Moves the task right after {@code afterId} in its list; first when absent. If-Match as in {@link #update}. */
+    @PutMapping("/{id}/position")
+    public ResponseEntity<TaskDTO> move(@PathVariable Long id,
+                                        @RequestParam(required = false) Long afterId,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<TaskDTO> t = tasks.move(id, afterId, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(t.version())).body(t.body());
     }
 
 
@@ -34,4 +62,25 @@ public class TaskController {
         tasks.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> addAll(@RequestBody List<TaskCreateItem> items,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                              Principal principal) {
+        return IdempotentResponses.ok(idempotency.execute(IdempotentResponses.principal(principal), "task.addAll", idempotencyKey,
+                items, () -> tasks.addAll(items)));
+    }
+
+
+    @PutMapping("/batch")
+    public BatchResult updateAll(@RequestBody List<TaskUpdateItem> items) {
+        return tasks.updateAll(items);
+    }
+
+
+    @DeleteMapping("/batch")
+    public BatchResult deleteAll(@RequestBody List<Long> ids) {
+        return tasks.deleteAll(ids);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.j_tech.fullstack_todo.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of threads doing database work at the size of the Hikari pool.
+ * <p>
+ * With platform threads Tomcat's worker pool already bounds concurrency; with virtual
+ * threads every request gets a thread, and thousands of them would otherwise queue
+ * inside Hikari until {@code connection-timeout} and then fail all at once. Here they
+ * wait on a fair semaphore instead (which parks virtual threads without pinning) and
+ * get a 503 with {@code Retry-After} after {@code app.db.bulkhead.acquire-timeout}.
+ * <p>
+ * A permit is taken around every {@code @Transactional} method and every repository
+ * call, and held for the outermost one only, so a transaction that makes several
+ * repository calls uses a single permit for its whole lifetime (matching the single
+ * connection it holds). The aspect runs before the transaction interceptor, so the
+ * permit is acquired before the connection. That only bounds the pool while connections
+ * end with their transaction, i.e. with {@code spring.jpa.open-in-view=false}; an
+ * open-in-view session keeps its connection after the permit is released.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.db.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseBulkhead {
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Counter rejected;
+
+    public DatabaseBulkhead(@Value("${app.db.bulkhead.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                            @Value("${app.db.bulkhead.acquire-timeout:PT2S}") Duration acquireTimeout,
+                            @Value("${spring.jpa.open-in-view:true}") boolean openInView,
+                            MeterRegistry registry) {
+        if (openInView) log.warn("spring.jpa.open-in-view is on: connections outlive bulkhead permits, so the pool is not bounded");
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeout = acquireTimeout;
+        this.rejected = registry.counter("db.bulkhead.rejected");
+        Gauge.builder("db.bulkhead.available", this.permits, Semaphore::availablePermits).register(registry);
+        Gauge.builder("db.bulkhead.waiting", this.permits, Semaphore::getQueueLength).register(registry);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)"
+            + " || @within(org.springframework.transaction.annotation.Transactional)"
+            + " || @annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object guard(ProceedingJoinPoint pjp) throws Throwable {
+        int[] depth = DEPTH.get();
+        if (depth[0] > 0) {
+            depth[0]++;
+            try {
+                return pjp.proceed();
+            } finally {
+                depth[0]--;
+            }
+        }
+        if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            rejected.increment();
+            throw new DatabaseBusyException(acquireTimeout);
+        }
+        depth[0] = 1;
+        try {
+            return pjp.proceed();
+        } finally {
+            depth[0] = 0;
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier (blocking inside
+ * {@code synchronized} or native code) for longer than {@code app.vthreads.pinned-threshold}.
+ * Streams the JDK's {@code jdk.VirtualThreadPinned} JFR event in-process, logs the top
+ * frames and counts occurrences as {@code jvm.threads.virtual.pinned}.
+ * Only active when {@code spring.threads.virtual.enabled=true} on Java 21+.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinnedThreadMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES = 12;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(@Value("${app.vthreads.pinned-threshold:PT0.02S}") Duration threshold,
+                               MeterRegistry registry) {
+        this.threshold = threshold;
+        this.pinned = registry.counter("jvm.threads.virtual.pinned");
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::report);
+        stream.startAsync();
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+        if (log.isWarnEnabled()) {
+            String frames = event.getStackTrace() == null ? "?" : event.getStackTrace().getFrames().stream()
+                    .limit(FRAMES)
+                    .map(PinnedThreadMonitor::frame)
+                    .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+            log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+        }
+    }
+
+    private static String frame(RecordedFrame f) {
+        return f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) stream.close();
+    }
+}
@@ -0,0 +1,117 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a healthy replica (round robin)
+ * and everything else to the primary. Reads fall back to the primary when no replica is
+ * healthy or when the current user wrote within the read-your-writes window.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction manager asks
+ * for a connection before the read-only flag is bound to the thread, and the proxy
+ * defers the real lookup to the first statement.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter toPrimary;
+    private final Counter toReplica;
+    private final Counter readYourWritesHits;
+    private final Counter noHealthyReplica;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      ReadYourWritesTracker readYourWrites, MeterRegistry registry) {
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.toPrimary = registry.counter("db.routing", "route", "primary", "reason", "write");
+        this.toReplica = registry.counter("db.routing", "route", "replica", "reason", "read");
+        this.readYourWritesHits = registry.counter("db.routing", "route", "primary", "reason", "read-your-writes");
+        this.noHealthyReplica = registry.counter("db.routing", "route", "primary", "reason", "no-healthy-replica");
+        this.replicas.forEach(r -> registry.gauge("db.replica.healthy", List.of(Tag.of("pool", r.name)),
+                r, x -> x.healthy ? 1 : 0));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            toPrimary.increment();
+            return PRIMARY;
+        }
+        if (readYourWrites.recentlyWrote()) {
+            readYourWritesHits.increment();
+            return PRIMARY;
+        }
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica r = replicas.get((start + i) % n);
+            if (r.healthy) {
+                toReplica.increment();
+                return r.name;
+            }
+        }
+        noHealthyReplica.increment();
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.health-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica r : replicas) {
+            boolean healthy;
+            try (Connection c = r.dataSource.getConnection()) {
+                healthy = c.isValid(1);
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != r.healthy) {
+                if (healthy) log.info("Replica {} is healthy again", r.name);
+                else log.warn("Replica {} failed its health check, routing its reads to the primary", r.name);
+            }
+            r.healthy = healthy;
+        }
+    }
+
+    /** Replica pools are not beans of their own, so they are closed with the router. */
+    public void close() throws Exception {
+        for (Replica r : replicas) {
+            if (r.dataSource instanceof AutoCloseable c) c.close();
+        }
+    }
+
+    public Map<String, Boolean> replicaHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        replicas.forEach(r -> health.put(r.name, r.healthy));
+        return health;
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers which principals committed a write in the last {@code window}, so their
+ * reads can be kept on the primary until the replicas have caught up. Recorded after
+ * commit on the writing request's thread, where the security context is still set.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ChangeEvent e) {
+        String principal = currentPrincipal();
+        if (principal != null) recentWriters.put(principal, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote() {
+        String principal = currentPrincipal();
+        return principal != null && recentWriters.getIfPresent(principal) != null;
+    }
+
+    private static String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas for {@link ReadWriteRoutingDataSource}. Pool settings are copied from
+ * {@code spring.datasource.hikari.*}; username/password default to the primary's.
+ *
+ * @param readYourWrites  how long a user's reads stay on the primary after their own write
+ * @param healthInterval  delay between replica health probes
+ */
+@ConfigurationProperties("app.datasource")
+public record ReplicaProperties(List<Replica> replicas, Duration readYourWrites, Duration healthInterval) {
+
+    public ReplicaProperties {
+        if (replicas == null) replicas = List.of();
+        if (readYourWrites == null) readYourWrites = Duration.ofSeconds(5);
+        if (healthInterval == null) healthInterval = Duration.ofSeconds(5);
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Primary/replica routing, active once {@code app.datasource.replicas[0].url} is set.
+ * Without replicas Boot's single auto-configured pool is used unchanged.
+ * <p>
+ * Each pool reports Hikari metrics under its own {@code pool} tag ({@code primary},
+ * {@code replica-0}, ...); routing decisions are counted as {@code db.routing}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties props) {
+        HikariDataSource ds = props.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return ds;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicas) {
+        return new ReadYourWritesTracker(replicas.readYourWrites());
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, ReplicaProperties props,
+                                                        DataSourceProperties primaryProps,
+                                                        ReadYourWritesTracker readYourWrites, MeterRegistry registry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(registry);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < props.replicas().size(); i++) {
+            ReplicaProperties.Replica r = props.replicas().get(i);
+            HikariDataSource ds = new HikariDataSource();
+            primaryDataSource.copyStateTo(ds);
+            ds.setPoolName("replica-" + i);
+            ds.setJdbcUrl(r.url());
+            ds.setUsername(r.username() != null ? r.username() : primaryProps.determineUsername());
+            ds.setPassword(r.password() != null ? r.password() : primaryProps.determinePassword());
+            ds.setReadOnly(true);
+            ds.setMetricsTrackerFactory(metrics);
+            replicas.put(ds.getPoolName(), ds);
+        }
+        primaryDataSource.setMetricsTrackerFactory(metrics);
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, readYourWrites, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReadWriteRoutingDataSource routingDataSource) {
+        return () -> {
+            Map<String, Boolean> health = routingDataSource.replicaHealth();
+            Health.Builder builder = health.containsValue(true) ? Health.up() : Health.status("DEGRADED");
+            return builder.withDetails(health).build();
+        };
+    }
+}
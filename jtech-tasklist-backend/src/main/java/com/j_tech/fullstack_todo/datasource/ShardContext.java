@@ -0,0 +1,65 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work goes to: the bucket of the user being
+ * served, or an explicit physical shard for per-shard jobs. Bound per request by
+ * {@link ShardContextFilter} and around background work by {@link ShardRouter}; read by
+ * {@link ShardRoutingDataSource} when a transaction takes its connection, so it must be
+ * bound before the transaction starts.
+ */
+public final class ShardContext {
+
+    /** Exactly one of {@code bucket} and {@code shard} is set. */
+    public record Route(Integer bucket, Integer shard) {
+    }
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Route current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T onBucket(int bucket, Supplier<T> work) {
+        return with(new Route(bucket, null), work);
+    }
+
+    public static <T> T onShard(int shard, Supplier<T> work) {
+        return with(new Route(null, shard), work);
+    }
+
+    /** {@code work} bound to the caller's route, for handing to another thread. */
+    public static Runnable capture(Runnable work) {
+        Route route = CURRENT.get();
+        if (route == null) return work;
+        return () -> with(route, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    static <T> T with(Route route, Supplier<T> work) {
+        Route previous = bind(route);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /** Binds {@code route}; the caller must pass the returned route to {@link #restore}. */
+    static Route bind(Route route) {
+        Route previous = CURRENT.get();
+        CURRENT.set(route);
+        return previous;
+    }
+
+    static void restore(Route previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+}
@@ -0,0 +1,36 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.j_tech.fullstack_todo.security.AuthenticatedUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the authenticated user's bucket for the rest of the request, so every repository
+ * call it makes goes to that user's shard. Runs right after JWT authentication;
+ * anonymous requests (login, refresh) are left unbound and route themselves.
+ */
+public class ShardContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser user)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ShardContext.Route previous = ShardContext.bind(new ShardContext.Route(ShardIds.bucketOf(user.id()), null));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+}
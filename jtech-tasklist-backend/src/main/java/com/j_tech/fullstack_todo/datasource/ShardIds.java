@@ -0,0 +1,62 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import java.util.Locale;
+import java.util.function.IntSupplier;
+
+/**
+ * Layout of entity ids: {@code sequence << 16 | originShard << 10 | bucket}.
+ * <ul>
+ *   <li>{@code bucket} (10 bits) is the logical shard of the owning user, so any id of a
+ *   user, list, task or refresh token routes on its own. Buckets, not physical shards,
+ *   are what moves between databases, so ids never change.</li>
+ *   <li>{@code originShard} (6 bits) is the database whose sequence produced the value.
+ *   Each one runs its own pooled sequences; these bits keep them from colliding once a
+ *   bucket has moved.</li>
+ * </ul>
+ * Ids stay below 2<sup>53</sup> for 2<sup>37</sup> sequence values per table and shard,
+ * so JavaScript clients read them exactly.
+ */
+public final class ShardIds {
+    public static final int BUCKET_BITS = 10;
+    public static final int SHARD_BITS = 6;
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    /**
+     * Definition of the {@code bucket} column each sharded table carries: computed by the
+     * database from the id and indexed with it, so {@link ShardMigrator} selects a
+     * bucket's rows by index range instead of scanning the table.
+     */
+    public static final String BUCKET_COLUMN = "smallint generated always as (mod(id, " + BUCKETS + "))";
+
+    /**
+     * Physical shard the calling thread's connection goes to; replaced by the sharding
+     * configuration and reset on its shutdown. Static because Hibernate, not Spring,
+     * creates id generators.
+     */
+    private static volatile IntSupplier currentShard = () -> 0;
+
+    private ShardIds() {
+    }
+
+    public static int bucketOf(long id) {
+        return (int) (id & (BUCKETS - 1));
+    }
+
+    /** A user's bucket, fixed by their e-mail so a login can be routed before any lookup. */
+    public static int bucketOf(String email) {
+        return email == null ? 0 : Math.floorMod(email.trim().toLowerCase(Locale.ROOT).hashCode(), BUCKETS);
+    }
+
+    static long compose(long sequence, int originShard, int bucket) {
+        return sequence << (BUCKET_BITS + SHARD_BITS) | (long) originShard << BUCKET_BITS | bucket;
+    }
+
+    static int currentShard() {
+        return currentShard.getAsInt();
+    }
+
+    static void currentShard(IntSupplier resolver) {
+        currentShard = resolver;
+    }
+}
@@ -0,0 +1,95 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+/**
+ * Which physical shard holds each bucket, and which buckets are frozen for a move. The
+ * source of truth is the {@code shard_buckets} table on shard 0, created and filled
+ * round-robin on first start; every node keeps a copy in memory and re-reads it every
+ * {@code app.sharding.map-refresh}. Plain JDBC against shard 0's pool, since it is read
+ * while routing and must not go through the routing data source itself.
+ */
+@Slf4j
+public class ShardMap {
+    public static final int HOME = 0;
+
+    private final JdbcTemplate home;
+    private final int shardCount;
+    private volatile int[] shardOf = new int[ShardIds.BUCKETS];
+    private volatile boolean[] moving = new boolean[ShardIds.BUCKETS];
+    private volatile boolean anyMoving;
+
+    public ShardMap(DataSource homeShard, int shardCount) {
+        this.home = new JdbcTemplate(homeShard);
+        this.shardCount = shardCount;
+        home.execute("create table if not exists shard_buckets (bucket int not null primary key, " +
+                "shard int not null, moving boolean not null)");
+        Integer rows = home.queryForObject("select count(*) from shard_buckets", Integer.class);
+        if (rows == null || rows == 0) {
+            List<Object[]> assignment = new ArrayList<>(ShardIds.BUCKETS);
+            for (int b = 0; b < ShardIds.BUCKETS; b++) assignment.add(new Object[]{b, b % shardCount});
+            home.batchUpdate("insert into shard_buckets (bucket, shard, moving) values (?, ?, false)", assignment);
+            log.info("Assigned {} buckets round-robin to {} shards", ShardIds.BUCKETS, shardCount);
+        }
+        refresh();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(int bucket) {
+        return shardOf[bucket];
+    }
+
+    public boolean isMoving(int bucket) {
+        return moving[bucket];
+    }
+
+    /** Whether any bucket is being moved; per-shard jobs touch every bucket on a shard. */
+    public boolean anyMoving() {
+        return anyMoving;
+    }
+
+    /** Buckets per shard, including shards that hold none. */
+    public Map<Integer, List<Integer>> bucketsByShard() {
+        Map<Integer, List<Integer>> out = new TreeMap<>();
+        for (int s = 0; s < shardCount; s++) out.put(s, new ArrayList<>());
+        int[] current = shardOf;
+        for (int b = 0; b < current.length; b++) out.get(current[b]).add(b);
+        return out;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.map-refresh:PT5S}")
+    public void refresh() {
+        int[] nextShard = new int[ShardIds.BUCKETS];
+        boolean[] nextMoving = new boolean[ShardIds.BUCKETS];
+        home.query("select bucket, shard, moving from shard_buckets", rs -> {
+            int b = rs.getInt(1);
+            int s = rs.getInt(2);
+            if (s < 0 || s >= shardCount) throw new IllegalStateException("Bucket " + b + " maps to unknown shard " + s);
+            nextShard[b] = s;
+            nextMoving[b] = rs.getBoolean(3);
+        });
+        boolean nextAny = false;
+        for (boolean m : nextMoving) nextAny |= m;
+        shardOf = nextShard;
+        moving = nextMoving;
+        anyMoving = nextAny;
+    }
+
+    void setMoving(int bucket, boolean value) {
+        home.update("update shard_buckets set moving = ? where bucket = ?", value, bucket);
+        refresh();
+    }
+
+    void assign(int bucket, int shard) {
+        home.update("update shard_buckets set shard = ?, moving = false where bucket = ?", shard, bucket);
+        refresh();
+    }
+}
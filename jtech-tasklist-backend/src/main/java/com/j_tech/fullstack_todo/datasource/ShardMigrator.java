@@ -0,0 +1,151 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.j_tech.fullstack_todo.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves one bucket (all rows of the users hashed into it) to another shard:
+ * <ol>
+ *   <li>freeze the bucket, so writes to it get a 503 while reads continue on the source,
+ *   and wait {@code app.sharding.migration-grace} for every node to see the freeze;</li>
+ *   <li>copy its rows table by table, parents first, in chunks of {@value #CHUNK};</li>
+ *   <li>point the bucket at the target (which also unfreezes it), wait the grace period
+ *   again for nodes still reading the source, and delete the rows there.</li>
+ * </ol>
+ * A failed copy removes whatever reached the target and unfreezes the bucket on the
+ * source. Rows are selected through each table's indexed {@code bucket} column (see
+ * {@link ShardIds#BUCKET_COLUMN}), which the target computes again on insert. One move
+ * at a time per node.
+ */
+@Slf4j
+public class ShardMigrator {
+    static final int CHUNK = 500;
+    /** Every table whose ids carry a bucket, in foreign-key order. */
+    static final List<String> TABLES = List.of("users", "todo_lists", "tasks", "task_archive", "refresh_tokens");
+
+    public record Move(int bucket, int from, int to, Map<String, Integer> rows) {
+    }
+
+    private final ShardMap map;
+    private final ShardRoutingDataSource shards;
+    private final Duration grace;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ShardMigrator(ShardMap map, ShardRoutingDataSource shards, Duration grace) {
+        this.map = map;
+        this.shards = shards;
+        this.grace = grace;
+    }
+
+    public Move move(int bucket, int target) {
+        if (bucket < 0 || bucket >= ShardIds.BUCKETS) throw new IllegalArgumentException("Bucket inexistente: " + bucket);
+        if (target < 0 || target >= map.shardCount()) throw new IllegalArgumentException("Shard inexistente: " + target);
+        if (!lock.tryLock()) throw new ConflictException("Outra migração está em andamento");
+        try {
+            int source = map.shardOf(bucket);
+            if (source == target) return new Move(bucket, source, target, Map.of());
+            log.info("Moving bucket {} from shard {} to shard {}", bucket, source, target);
+            map.setMoving(bucket, true);
+            Map<String, Integer> copied = new LinkedHashMap<>();
+            try {
+                pause();
+                delete(target, bucket);
+                for (String table : TABLES) copied.put(table, copy(table, bucket, source, target));
+                map.assign(bucket, target);
+            } catch (RuntimeException e) {
+                log.error("Moving bucket {} to shard {} failed; it stays on shard {}", bucket, target, source, e);
+                try {
+                    delete(target, bucket);
+                } finally {
+                    map.setMoving(bucket, false);
+                }
+                throw e;
+            }
+            pause();
+            delete(source, bucket);
+            log.info("Moved bucket {} to shard {}: {}", bucket, target, copied);
+            return new Move(bucket, source, target, copied);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves that leave every shard with the same number of buckets (within one), taking
+     * from the fullest shard and giving to the emptiest; typically run after adding one.
+     */
+    public List<Move> plan() {
+        Map<Integer, List<Integer>> byShard = map.bucketsByShard();
+        Map<Integer, Deque<Integer>> remaining = new TreeMap<>();
+        byShard.forEach((s, buckets) -> remaining.put(s, new ArrayDeque<>(buckets)));
+        List<Move> moves = new ArrayList<>();
+        while (true) {
+            int fullest = Collections.max(remaining.keySet(), Comparator.comparingInt(s -> remaining.get(s).size()));
+            int emptiest = Collections.min(remaining.keySet(), Comparator.comparingInt(s -> remaining.get(s).size()));
+            if (remaining.get(fullest).size() - remaining.get(emptiest).size() <= 1) return moves;
+            int bucket = remaining.get(fullest).pollLast();
+            remaining.get(emptiest).add(bucket);
+            moves.add(new Move(bucket, fullest, emptiest, Map.of()));
+        }
+    }
+
+    private int copy(String table, int bucket, int source, int target) {
+        JdbcTemplate from = new JdbcTemplate(shards.shard(source));
+        JdbcTemplate to = new JdbcTemplate(shards.shard(target));
+        long afterId = Long.MIN_VALUE;
+        int total = 0;
+        while (true) {
+            List<Object[]> rows = new ArrayList<>();
+            List<String> columns = new ArrayList<>();
+            List<Integer> copied = new ArrayList<>();
+            from.query("select * from " + table + " where bucket = ? and id > ? order by id limit " + CHUNK,
+                    rs -> {
+                        ResultSetMetaData meta = rs.getMetaData();
+                        if (columns.isEmpty()) {
+                            // The generated bucket column cannot be inserted into.
+                            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                                if (meta.getColumnLabel(i).equalsIgnoreCase("bucket")) continue;
+                                columns.add(meta.getColumnLabel(i));
+                                copied.add(i);
+                            }
+                        }
+                        Object[] row = new Object[columns.size()];
+                        for (int i = 0; i < row.length; i++) row[i] = rs.getObject(copied.get(i));
+                        rows.add(row);
+                    }, bucket, afterId);
+            if (rows.isEmpty()) return total;
+            String insert = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+            to.batchUpdate(insert, rows);
+            total += rows.size();
+            afterId = ((Number) rows.get(rows.size() - 1)[columns.indexOf(idColumn(columns))]).longValue();
+            if (rows.size() < CHUNK) return total;
+        }
+    }
+
+    private static String idColumn(List<String> columns) {
+        return columns.stream().filter(c -> c.equalsIgnoreCase("id")).findFirst().orElseThrow();
+    }
+
+    private void delete(int shard, int bucket) {
+        JdbcTemplate jdbc = new JdbcTemplate(shards.shard(shard));
+        for (int i = TABLES.size() - 1; i >= 0; i--) {
+            jdbc.update("delete from " + TABLES.get(i) + " where bucket = ?", bucket);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(grace.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for nodes to see the shard map", e);
+        }
+    }
+}
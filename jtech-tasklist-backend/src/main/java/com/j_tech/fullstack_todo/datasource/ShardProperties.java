@@ -0,0 +1,29 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Extra shards for {@link ShardRoutingDataSource}. Shard 0 is {@code spring.datasource}
+ * and also holds the bucket map; {@code shards[i]} is shard {@code i + 1}. Pool settings
+ * are copied from {@code spring.datasource.hikari.*}; username/password default to
+ * shard 0's.
+ *
+ * @param mapRefresh     how often every node re-reads the bucket map
+ * @param migrationGrace how long a bucket move waits after freezing the bucket, so every
+ *                       node has seen the freeze and in-flight writes have finished
+ */
+@ConfigurationProperties("app.sharding")
+public record ShardProperties(List<Shard> shards, Duration mapRefresh, Duration migrationGrace) {
+
+    public ShardProperties {
+        if (shards == null) shards = List.of();
+        if (mapRefresh == null) mapRefresh = Duration.ofSeconds(5);
+        if (migrationGrace == null) migrationGrace = mapRefresh.multipliedBy(2);
+    }
+
+    public record Shard(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Routing helpers for work that is not a user request. Present with or without
+ * sharding, so jobs are written once: without a {@link ShardMap} every method simply
+ * runs the work on the single database.
+ */
+@Component
+public class ShardRouter {
+    private final ShardMap map;
+
+    public ShardRouter(ObjectProvider<ShardMap> map) {
+        this.map = map.getIfAvailable();
+    }
+
+    public boolean enabled() {
+        return map != null;
+    }
+
+    /** Runs {@code work} once per physical shard, in order; results in shard order. */
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        if (map == null) return Collections.singletonList(work.get());
+        List<T> out = new ArrayList<>(map.shardCount());
+        for (int s = 0; s < map.shardCount(); s++) out.add(ShardContext.onShard(s, work));
+        return out;
+    }
+
+    /** Runs {@code work} on the shard of the user owning {@code id} (any sharded entity id). */
+    public <T> T onBucketOf(long id, Supplier<T> work) {
+        return ShardContext.onBucket(ShardIds.bucketOf(id), work);
+    }
+}
@@ -0,0 +1,96 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.j_tech.fullstack_todo.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each connection to the shard of the {@link ShardContext} bound on the calling
+ * thread. Work with nothing bound (startup, schema export) goes to shard 0 and is counted
+ * as {@code db.shard.routing{route=unbound}}. While a bucket is being moved, transactions
+ * that may write to it get a 503; read-only ones keep reading the source shard. Work bound
+ * to an explicit shard (per-shard jobs) can write any bucket on it, so while any bucket
+ * is moving its writing transactions are refused too, on every shard: the moved rows sit
+ * on the source and, partly copied, on the target.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}, like the replica router, so
+ * the lookup happens at the first statement rather than when the transaction begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+    private final ShardMap map;
+    private final Duration retryAfter;
+    private final Counter routed;
+    private final Counter unbound;
+    private final Counter frozen;
+
+    public ShardRoutingDataSource(List<DataSource> shards, ShardMap map, Duration retryAfter, MeterRegistry registry) {
+        this.shards = shards;
+        this.map = map;
+        this.retryAfter = retryAfter;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) targets.put(i, shards.get(i));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardMap.HOME));
+        this.routed = registry.counter("db.shard.routing", "route", "bucket");
+        this.unbound = registry.counter("db.shard.routing", "route", "unbound");
+        this.frozen = registry.counter("db.shard.routing", "route", "frozen");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ShardContext.Route route = ShardContext.current();
+        if (route == null) {
+            unbound.increment();
+            return ShardMap.HOME;
+        }
+        boolean writing = !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (route.shard() != null) {
+            if (writing && map.anyMoving()) {
+                frozen.increment();
+                throw new DatabaseBusyException(retryAfter);
+            }
+            return route.shard();
+        }
+        int bucket = route.bucket();
+        if (writing && map.isMoving(bucket)) {
+            frozen.increment();
+            throw new DatabaseBusyException(retryAfter);
+        }
+        routed.increment();
+        return map.shardOf(bucket);
+    }
+
+    /** Where a connection taken now would go, without the side effects of a lookup. */
+    public int currentShard() {
+        ShardContext.Route route = ShardContext.current();
+        if (route == null) return ShardMap.HOME;
+        return route.shard() != null ? route.shard() : map.shardOf(route.bucket());
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /** The pool of one physical shard, for tools that copy between shards. */
+    DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    /** The extra shard pools are not beans of their own, so they are closed with the router. */
+    public void close() throws Exception {
+        ShardIds.currentShard(() -> ShardMap.HOME);
+        for (DataSource ds : shards.subList(1, shards.size())) {
+            if (ds instanceof AutoCloseable c) c.close();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.j_tech.fullstack_todo.datasource;
+
+/** An entity whose id carries the bucket of the user owning it. */
+public interface Sharded {
+    int shardBucket();
+}
@@ -0,0 +1,22 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id from a pooled sequence, laid out by {@link ShardIds} with the bucket of the entity,
+ * which must implement {@link Sharded}. The sequence batches like
+ * {@code @SequenceGenerator} (a table on MySQL), so inserts still JDBC-batch.
+ */
+@IdGeneratorType(ShardedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedId {
+    String sequence();
+
+    int allocationSize() default 50;
+}
@@ -0,0 +1,49 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Generator behind {@link ShardedId}: the pooled sequence value, placed by {@link ShardIds}.
+ * The sequence is read on whichever shard the session's connection goes to, so each shard
+ * gets its own pooled optimizer; a range fetched from one shard's sequence is never
+ * handed out under another shard's origin bits.
+ */
+public class ShardedIdGenerator extends SequenceStyleGenerator implements AnnotationBasedGenerator<ShardedId> {
+    private ShardedId config;
+    private final ConcurrentMap<Integer, Optimizer> optimizers = new ConcurrentHashMap<>();
+
+    @Override
+    public void initialize(ShardedId config, Member member, GeneratorCreationContext context) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry registry) {
+        params.setProperty(SEQUENCE_PARAM, config.sequence());
+        params.setProperty(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        super.configure(type, params, registry);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        int shard = ShardIds.currentShard();
+        Optimizer optimizer = optimizers.computeIfAbsent(shard, s -> OptimizerFactory.buildOptimizer(
+                StandardOptimizerDescriptor.POOLED, getIdentifierType().getReturnedClass(), config.allocationSize(), 1));
+        long sequence = ((Number) optimizer.generate(getDatabaseStructure().buildCallback(session))).longValue();
+        return ShardIds.compose(sequence, shard, ((Sharded) entity).shardBucket());
+    }
+}
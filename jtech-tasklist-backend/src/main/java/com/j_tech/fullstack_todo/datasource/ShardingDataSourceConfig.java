@@ -0,0 +1,124 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding by user, active once {@code app.sharding.shards[0].url} is set. Shard 0 is
+ * Boot's {@code spring.datasource}; each entry of {@code app.sharding.shards} adds one
+ * more. Pools report Hikari metrics as {@code shard-0}, {@code shard-1}, ...
+ * <p>
+ * Every shard holds the full schema. With {@code ddl-auto=create}/{@code create-drop}
+ * Hibernate only exports to shard 0, so the same export is repeated here on the others
+ * at startup; they are not dropped on shutdown. Not combinable with read replicas.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.shards[0].url")
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardingDataSourceConfig {
+
+    public ShardingDataSourceConfig(Environment env) {
+        if (env.containsProperty("app.datasource.replicas[0].url")) {
+            throw new IllegalStateException("app.sharding and app.datasource.replicas cannot be combined");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource homeShardDataSource(DataSourceProperties props) {
+        HikariDataSource ds = props.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("shard-" + ShardMap.HOME);
+        return ds;
+    }
+
+    @Bean
+    public ShardMap shardMap(HikariDataSource homeShardDataSource, ShardProperties props) {
+        int shards = props.shards().size() + 1;
+        if (shards > ShardIds.MAX_SHARDS) throw new IllegalStateException("At most " + ShardIds.MAX_SHARDS + " shards");
+        return new ShardMap(homeShardDataSource, shards);
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource homeShardDataSource, ShardProperties props,
+                                                         DataSourceProperties homeProps, ShardMap map,
+                                                         MeterRegistry registry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(registry);
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(homeShardDataSource);
+        for (ShardProperties.Shard s : props.shards()) {
+            HikariDataSource ds = new HikariDataSource();
+            homeShardDataSource.copyStateTo(ds);
+            ds.setPoolName("shard-" + shards.size());
+            ds.setJdbcUrl(s.url());
+            ds.setUsername(s.username() != null ? s.username() : homeProps.determineUsername());
+            ds.setPassword(s.password() != null ? s.password() : homeProps.determinePassword());
+            ds.setMetricsTrackerFactory(metrics);
+            shards.add(ds);
+        }
+        homeShardDataSource.setMetricsTrackerFactory(metrics);
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards, map, props.migrationGrace(), registry);
+        ShardIds.currentShard(routing::currentShard);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /** Carries the caller's shard into the task executor (streamed responses, async work). */
+    @Bean
+    public TaskDecorator shardContextTaskDecorator() {
+        return ShardContext::capture;
+    }
+
+    @Bean
+    public ShardMigrator shardMigrator(ShardMap map, ShardRoutingDataSource shardRoutingDataSource, ShardProperties props) {
+        return new ShardMigrator(map, shardRoutingDataSource, props.migrationGrace());
+    }
+
+    @Bean
+    public ShardsEndpoint shardsEndpoint(ShardMap map, ShardMigrator migrator) {
+        return new ShardsEndpoint(map, migrator);
+    }
+
+    @Bean
+    public SmartInitializingSingleton shardSchemaExport(EntityManagerFactory emf, ShardMap map,
+                                                        @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return () -> {
+            if (!ddlAuto.equals("create") && !ddlAuto.equals("create-drop")) return;
+            var schema = emf.unwrap(SessionFactory.class).getSchemaManager();
+            for (int s = 0; s < map.shardCount(); s++) {
+                if (s == ShardMap.HOME) continue;
+                ShardContext.onShard(s, () -> {
+                    schema.dropMappedObjects(true);
+                    schema.exportMappedObjects(true);
+                    return null;
+                });
+                log.info("Exported schema to shard {}", s);
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * {@code /actuator/shards}: the bucket map and the moves that would even it out
+ * (GET), moving one bucket ({@code POST /actuator/shards/{bucket}} with
+ * {@code {"shard": n}}) or carrying out the whole plan ({@code POST /actuator/shards}).
+ * Not exposed by default; expose it on a management port only.
+ */
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+    private final ShardMap map;
+    private final ShardMigrator migrator;
+
+    public ShardsEndpoint(ShardMap map, ShardMigrator migrator) {
+        this.map = map;
+        this.migrator = migrator;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        map.bucketsByShard().forEach((s, buckets) -> counts.put(s, buckets.size()));
+        List<Integer> moving = IntStream.range(0, ShardIds.BUCKETS).filter(map::isMoving).boxed().toList();
+        return Map.of("bucketsPerShard", counts, "moving", moving, "plan", migrator.plan());
+    }
+
+    @WriteOperation
+    public ShardMigrator.Move move(@Selector int bucket, int shard) {
+        return migrator.move(bucket, shard);
+    }
+
+    @WriteOperation
+    public List<ShardMigrator.Move> rebalance() {
+        return migrator.plan().stream().map(m -> migrator.move(m.bucket(), m.to())).toList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @param count open tasks due that day in total; {@code tasks} holds only the ones on
+ *              this page when a day spans a page boundary
+ */
+public record AgendaDay(LocalDate date, long count, List<AgendaItem> tasks) {
+}
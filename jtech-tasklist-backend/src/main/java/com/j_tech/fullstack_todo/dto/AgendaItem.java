@@ -0,0 +1,6 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDate;
+
+public record AgendaItem(Long id, Long listId, String listName, String title, String description, LocalDate dueDate) {
+}
@@ -0,0 +1,10 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.util.List;
+
+public record ArchivePage(List<ArchivedTaskDTO> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
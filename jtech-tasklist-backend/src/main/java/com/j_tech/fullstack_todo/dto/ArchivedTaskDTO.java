@@ -0,0 +1,7 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.*;
+
+public record ArchivedTaskDTO(Long id, Long listId, String title, String description, LocalDate dueDate,
+                              LocalDateTime completedAt, LocalDateTime archivedAt) {
+}
@@ -0,0 +1,17 @@
+package com.j_tech.fullstack_todo.dto;
+
+public record BatchItemResult(int index, Status status, TaskDTO task, String message) {
+    public enum Status { CREATED, UPDATED, DELETED, INVALID, DUPLICATE, NOT_FOUND }
+
+    public boolean succeeded() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+
+    public static BatchItemResult ok(int index, Status status, TaskDTO task) {
+        return new BatchItemResult(index, status, task, null);
+    }
+
+    public static BatchItemResult failed(int index, Status status, String message) {
+        return new BatchItemResult(index, status, null, message);
+    }
+}
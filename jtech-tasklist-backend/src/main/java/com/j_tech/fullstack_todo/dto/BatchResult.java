@@ -0,0 +1,10 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.util.*;
+
+public record BatchResult(int succeeded, int failed, List<BatchItemResult> items) {
+    public static BatchResult of(List<BatchItemResult> items) {
+        int ok = (int) items.stream().filter(BatchItemResult::succeeded).count();
+        return new BatchResult(ok, items.size() - ok, items);
+    }
+}
@@ -0,0 +1,16 @@
+package com.j_tech.fullstack_todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * One line of an account export ({@code application/x-ndjson}). All list lines come
+ * before the task lines, so an import can resolve every {@code listId} as it reads.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = ListRecord.class, name = "list"),
+        @JsonSubTypes.Type(value = TaskRecord.class, name = "task")
+})
+public sealed interface ExportRecord permits ListRecord, TaskRecord {
+}
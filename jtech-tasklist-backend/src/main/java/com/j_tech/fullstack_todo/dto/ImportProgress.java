@@ -0,0 +1,21 @@
+package com.j_tech.fullstack_todo.dto;
+
+/**
+ * Progress line streamed back while an import runs: {@code progress} after every
+ * committed batch, then one {@code done} or {@code error}. Counts are cumulative;
+ * batches committed before an error stay imported.
+ */
+public record ImportProgress(String type, int lists, int tasks, int skipped, String message) {
+
+    public static ImportProgress progress(int lists, int tasks, int skipped) {
+        return new ImportProgress("progress", lists, tasks, skipped, null);
+    }
+
+    public static ImportProgress done(int lists, int tasks, int skipped) {
+        return new ImportProgress("done", lists, tasks, skipped, null);
+    }
+
+    public static ImportProgress error(int lists, int tasks, int skipped, String message) {
+        return new ImportProgress("error", lists, tasks, skipped, message);
+    }
+}
@@ -2,5 +2,14 @@ package com.j_tech.fullstack_todo.dto;
 
 import java.time.*;
 
-public record ListDTO(Long id, String name, int taskCount, LocalDateTime updatedAt) {
-}
\ No newline at end of file
+public record ListDTO(Long id, String name, long taskCount, long doneCount, long openCount, long version,
+                      LocalDateTime updatedAt) {
+    /** Projection constructor for aggregate queries; SUM over an empty group yields null. */
+    public ListDTO(Long id, String name, Long taskCount, Long doneCount, Long version, LocalDateTime updatedAt) {
+        this(id, name, nz(taskCount), nz(doneCount), nz(taskCount) - nz(doneCount), nz(version), updatedAt);
+    }
+
+    private static long nz(Long v) {
+        return v != null ? v : 0L;
+    }
+}
@@ -0,0 +1,6 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDateTime;
+
+public record ListRecord(Long id, String name, LocalDateTime createdAt, LocalDateTime updatedAt) implements ExportRecord {
+}
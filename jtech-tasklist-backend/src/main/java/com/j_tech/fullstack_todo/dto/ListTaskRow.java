@@ -0,0 +1,12 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDate;
+
+/** One row of the per-list top-N open tasks query. */
+public record ListTaskRow(Long listId, Long id, String title, String description, boolean done, LocalDate dueDate,
+                          String rank) {
+
+    public TaskDTO toTask() {
+        return new TaskDTO(id, title, description, done, dueDate, rank);
+    }
+}
@@ -0,0 +1,11 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.util.Locale;
+
+/** (list, title) pair as enforced by the tasks unique constraint. */
+public record ListTitle(Long listId, String title) {
+    /** MySQL's default collation compares titles case-insensitively, so keys do too. */
+    public ListTitle normalized() {
+        return new ListTitle(listId, title.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,14 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** A list summary together with its first open tasks ({@code GET /api/lists?include=tasks}). */
+public record ListWithTasks(Long id, String name, long taskCount, long doneCount, long openCount, long version,
+                            LocalDateTime updatedAt, List<TaskDTO> tasks) {
+
+    public static ListWithTasks of(ListDTO l, List<TaskDTO> tasks) {
+        return new ListWithTasks(l.id(), l.name(), l.taskCount(), l.doneCount(), l.openCount(), l.version(),
+                l.updatedAt(), tasks);
+    }
+}
@@ -0,0 +1,11 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDate;
+
+public record SearchHit(Long id, Long listId, String title, String description, boolean done, LocalDate dueDate,
+                        double score) {
+
+    public static SearchHit of(TaskRecord r, double score) {
+        return new SearchHit(r.id(), r.listId(), r.title(), r.description(), r.done(), r.dueDate(), score);
+    }
+}
@@ -0,0 +1,11 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDate;
+
+/** {@code done} and {@code dueDate} are optional (null: open, no due date). */
+public record TaskCreateItem(Long listId, String title, String description, Boolean done, LocalDate dueDate) {
+
+    public TaskCreateItem(Long listId, String title, String description) {
+        this(listId, title, description, null, null);
+    }
+}
@@ -2,5 +2,6 @@ package com.j_tech.fullstack_todo.dto;
 
 import java.time.*;
 
-public record TaskDTO(Long id, String title, String description, boolean done, LocalDate dueDate) {
+/** {@code rank} is the opaque ordering key: tasks sort by it, then by id. */
+public record TaskDTO(Long id, String title, String description, boolean done, LocalDate dueDate, String rank) {
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** One row of an export page; the rank is the keyset position, not part of the export. */
+public record TaskExportRow(Long id, Long listId, String title, String description, boolean done,
+                            LocalDate dueDate, LocalDateTime createdAt, String rank) {
+
+    public TaskRecord toRecord() {
+        return new TaskRecord(id, listId, title, description, done, dueDate, createdAt);
+    }
+}
@@ -0,0 +1,6 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.*;
+
+public record TaskFilter(Boolean done, LocalDate dueFrom, LocalDate dueTo, boolean descending) {
+}
@@ -0,0 +1,4 @@
+package com.j_tech.fullstack_todo.dto;
+
+public record TaskOwner(Long taskId, Long listId, Long userId) {
+}
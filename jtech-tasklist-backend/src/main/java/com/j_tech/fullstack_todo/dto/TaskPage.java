@@ -0,0 +1,9 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.util.*;
+
+public record TaskPage(List<TaskDTO> items, String nextCursor) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.j_tech.fullstack_todo.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record TaskRecord(Long id, Long listId, String title, String description, boolean done,
+                         LocalDate dueDate, LocalDateTime createdAt) implements ExportRecord {
+}
@@ -0,0 +1,4 @@
+package com.j_tech.fullstack_todo.dto;
+
+public record TaskUpdateItem(Long id, String title, String description, Boolean done) {
+}
@@ -0,0 +1,8 @@
+package com.j_tech.fullstack_todo.dto;
+
+/**
+ * A response body plus the list version it was read or written at (the ETag source), or
+ * a null version when the write is still buffered and its version is not known yet.
+ */
+public record Versioned<T>(T body, Long version) {
+}
@@ -0,0 +1,29 @@
+package com.j_tech.fullstack_todo.event;
+
+/**
+ * Published by the services for every committed mutation of a list or task. Listeners
+ * that touch state outside the database (caches, change feeds) should consume it with
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public record ChangeEvent(Type type, Long userId, Long listId, Long taskId) {
+
+    /**
+     * {@code TASKS_ARCHIVED} and {@code TASKS_REORDERED} are list-level: done tasks of the
+     * list moved to the archive, or every rank of the list rewritten by the rebalancer.
+     */
+    public enum Type {
+        LIST_CREATED, LIST_RENAMED, LIST_DELETED, TASK_ADDED, TASK_UPDATED, TASK_DELETED, TASKS_ARCHIVED, TASKS_REORDERED
+    }
+
+    public static ChangeEvent list(Type type, Long userId, Long listId) {
+        return new ChangeEvent(type, userId, listId, null);
+    }
+
+    public static ChangeEvent task(Type type, Long userId, Long listId, Long taskId) {
+        return new ChangeEvent(type, userId, listId, taskId);
+    }
+
+    public boolean affectsTasks() {
+        return taskId != null || type == Type.LIST_DELETED || type == Type.TASKS_ARCHIVED || type == Type.TASKS_REORDERED;
+    }
+}
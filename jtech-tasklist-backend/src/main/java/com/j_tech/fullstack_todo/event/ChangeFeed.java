@@ -0,0 +1,229 @@
+package com.j_tech.fullstack_todo.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user Server-Sent Events fan-out of committed {@link ChangeEvent}s.
+ * <p>
+ * Connections are async servlet requests, so an idle subscriber holds no thread. Each
+ * subscriber has a bounded queue drained on the feed's own pool ({@code app.feed.threads}
+ * threads, at most {@code app.feed.queue-capacity} waiting drains), so clients that are
+ * slow to read only hold up each other. When a slow client overflows its queue, the
+ * backlog is dropped and a single {@code resync} event tells the client to refetch; when
+ * the pool turns a drain away, that subscriber is disconnected and reconnects. Recent
+ * events are kept in a fixed ring so a reconnect carrying {@code Last-Event-ID} resumes
+ * without gaps, or gets {@code resync} if it fell off the ring.
+ * <p>
+ * The feed is node-local: it only carries changes committed through this instance, so
+ * behind a load balancer a client sees other instances' changes on its next fetch, not
+ * live. Event ids start at a per-instance base derived from the start time, so a
+ * {@code Last-Event-ID} issued by another instance (or before a restart) gets
+ * {@code resync} instead of a replay of unrelated events.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    public record FeedEvent(long id, ChangeEvent change) {
+    }
+
+    /** Wire payload; the user is implied by the subscription. */
+    public record Payload(Long listId, Long taskId) {
+    }
+
+    final ThreadPoolTaskExecutor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    private final FeedEvent[] ring;
+    private final long firstId;
+    private long lastId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter resyncs;
+    private final Counter rejected;
+
+    public ChangeFeed(@Value("${app.feed.threads:8}") int threads,
+                      @Value("${app.feed.queue-capacity:20000}") int queueCapacity,
+                      @Value("${app.feed.ring-size:4096}") int ringSize,
+                      @Value("${app.feed.buffer-size:256}") int bufferSize,
+                      @Value("${app.feed.timeout:PT30M}") Duration timeout,
+                      MeterRegistry registry) {
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("feed-");
+        executor.setDaemon(true);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(registry, executor.getThreadPoolExecutor(), "feed");
+        this.ring = new FeedEvent[ringSize];
+        // 2^20 ids per millisecond between two instances' starts before their ranges meet.
+        this.firstId = (System.currentTimeMillis() << 20) + 1;
+        this.lastId = firstId - 1;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("feed.subscribers", connections, AtomicInteger::get).register(registry);
+        this.resyncs = Counter.builder("feed.resyncs").register(registry);
+        this.rejected = Counter.builder("feed.rejected").register(registry);
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber sub = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(sub));
+        emitter.onTimeout(() -> remove(sub));
+        emitter.onError(e -> remove(sub));
+
+        // Replay and registration happen under the same lock as publish, so the client
+        // sees every event exactly once and in order across the switch to live delivery.
+        lock.lock();
+        try {
+            if (lastEventId != null) replay(sub, lastEventId);
+            subscribers.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(sub);
+        } finally {
+            lock.unlock();
+        }
+        connections.incrementAndGet();
+        sub.schedule();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ChangeEvent change) {
+        lock.lock();
+        try {
+            FeedEvent e = new FeedEvent(++lastId, change);
+            ring[(int) (e.id() % ring.length)] = e;
+            Set<Subscriber> subs = subscribers.get(change.userId());
+            if (subs != null) subs.forEach(s -> s.offer(e));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.heartbeat:PT25S}")
+    public void heartbeat() {
+        subscribers.values().forEach(subs -> subs.forEach(Subscriber::ping));
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.values().forEach(subs -> subs.forEach(s -> s.emitter.complete()));
+        executor.shutdown();
+    }
+
+    private void replay(Subscriber sub, long after) {
+        long oldest = Math.max(firstId, lastId - ring.length + 1);
+        if (after < oldest - 1 || after > lastId) {
+            sub.overflow();
+            return;
+        }
+        for (long id = after + 1; id <= lastId; id++) {
+            FeedEvent e = ring[(int) (id % ring.length)];
+            if (e.change().userId().equals(sub.userId)) sub.offer(e);
+        }
+    }
+
+    private void remove(Subscriber sub) {
+        Set<Subscriber> subs = subscribers.get(sub.userId);
+        if (subs != null && subs.remove(sub)) {
+            connections.decrementAndGet();
+            subscribers.computeIfPresent(sub.userId, (k, v) -> v.isEmpty() ? null : v);
+        }
+    }
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<FeedEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean overflowed;
+        volatile boolean pingDue = true;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(FeedEvent e) {
+            if (!queue.offer(e)) overflow();
+            schedule();
+        }
+
+        void overflow() {
+            overflowed = true;
+            queue.clear();
+        }
+
+        void ping() {
+            pingDue = true;
+            schedule();
+        }
+
+        void schedule() {
+            if (!draining.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this::drain);
+            } catch (TaskRejectedException ex) {
+                // Pool saturated: shed this subscriber; it reconnects with Last-Event-ID.
+                rejected.increment();
+                remove(this);
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    if (overflowed) {
+                        overflowed = false;
+                        resyncs.increment();
+                        emitter.send(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+                    }
+                    if (pingDue) {
+                        pingDue = false;
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                    FeedEvent e;
+                    while ((e = queue.poll()) != null && !overflowed) {
+                        ChangeEvent c = e.change();
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(e.id()))
+                                .name(c.type().name().toLowerCase(Locale.ROOT))
+                                .data(new Payload(c.listId(), c.taskId()), MediaType.APPLICATION_JSON));
+                    }
+                    draining.set(false);
+                    // Re-check: an offer that lost the CAS above relies on us to pick it up.
+                } while ((!queue.isEmpty() || overflowed || pingDue) && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Dropping feed subscriber of user {}: {}", userId, ex.toString());
+                draining.set(false);
+                remove(this);
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.j_tech.fullstack_todo.exception;
+
+/** The request clashes with the resource's current state (a duplicate name, a non-empty list); mapped to 409. */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
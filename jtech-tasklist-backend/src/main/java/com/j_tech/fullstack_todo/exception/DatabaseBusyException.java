@@ -0,0 +1,18 @@
+package com.j_tech.fullstack_todo.exception;
+
+import java.time.Duration;
+
+/** Thrown when no database permit could be acquired in time; mapped to 503. */
+public class DatabaseBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public DatabaseBusyException(Duration retryAfter) {
+        super("Banco de dados ocupado, tente novamente");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,9 +1,15 @@
 package com.j_tech.fullstack_todo.exception;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
@@ -21,6 +27,120 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", HttpStatus.BAD_REQUEST.value(),
+                "code", "BAD_REQUEST",
+                "message", Objects.requireNonNullElse(ex.getMessage(), "Requisição inválida")
+        ));
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleStateConflict(ConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", HttpStatus.CONFLICT.value(),
+                "code", "CONFLICT",
+                "message", Objects.requireNonNullElse(ex.getMessage(), "Conflito")
+        ));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePrecondition(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", HttpStatus.PRECONDITION_FAILED.value(),
+                "code", "PRECONDITION_FAILED",
+                "message", ex.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, Object>> handleKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "code", "IDEMPOTENCY_KEY_REUSED",
+                "message", ex.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRefresh(InvalidRefreshTokenException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", HttpStatus.UNAUTHORIZED.value(),
+                "code", "INVALID_REFRESH_TOKEN",
+                "message", ex.getMessage()
+        ));
+    }
+
+    /** Same body as RateLimitFilter's 429, whole seconds rounded up. */
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimited(RateLimitedException ex) {
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(Map.of(
+                        "timestamp", Instant.now().toString(),
+                        "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                        "code", "RATE_LIMITED",
+                        "message", "Muitas requisições; tente novamente em " + seconds + " s"
+                ));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", HttpStatus.CONFLICT.value(),
+                "code", "CONCURRENT_MODIFICATION",
+                "message", "Registro alterado por outra requisição"
+        ));
+    }
+
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleBusy(DatabaseBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(Map.of(
+                        "timestamp", Instant.now().toString(),
+                        "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "code", "DATABASE_BUSY",
+                        "message", ex.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServerBusy(ServerBusyException ex) {
+        return serverBusy(ex.getRetryAfter(), ex.getMessage());
+    }
+
+    /**
+     * The async request pool (see WebAsyncConfig) has no thread or queue slot left. The
+     * streaming response's own headers (an NDJSON attachment) are already on the
+     * response, uncommitted; they are dropped so the client gets a plain JSON error.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(TaskRejectedException ex, HttpServletResponse response) {
+        if (!response.isCommitted()) response.reset();
+        return serverBusy(Duration.ofSeconds(1), "Servidor ocupado, tente novamente");
+    }
+
+    private static ResponseEntity<Map<String, Object>> serverBusy(Duration retryAfter, String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "timestamp", Instant.now().toString(),
+                        "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "code", "SERVER_BUSY",
+                        "message", message
+                ));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleDefault(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
@@ -0,0 +1,9 @@
+package com.j_tech.fullstack_todo.exception;
+
+/** An Idempotency-Key was replayed with a different request; mapped to 422. */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key já utilizada com outra requisição");
+    }
+}
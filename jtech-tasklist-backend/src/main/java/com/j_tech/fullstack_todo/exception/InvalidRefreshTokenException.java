@@ -0,0 +1,9 @@
+package com.j_tech.fullstack_todo.exception;
+
+/** Unknown, expired, already used or revoked refresh token; mapped to 401. */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException() {
+        super("Refresh token inválido ou expirado");
+    }
+}
@@ -0,0 +1,8 @@
+package com.j_tech.fullstack_todo.exception;
+
+/** The client's If-Match version no longer matches the stored one. */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
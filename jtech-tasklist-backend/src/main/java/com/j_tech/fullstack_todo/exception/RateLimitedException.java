@@ -0,0 +1,18 @@
+package com.j_tech.fullstack_todo.exception;
+
+import java.time.Duration;
+
+/** A client is over a rate limit checked past the filter (see RefreshTokenService); mapped to 429. */
+public class RateLimitedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitedException(Duration retryAfter) {
+        super("Muitas requisições");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
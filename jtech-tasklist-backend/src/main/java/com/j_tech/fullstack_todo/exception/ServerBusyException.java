@@ -0,0 +1,18 @@
+package com.j_tech.fullstack_todo.exception;
+
+import java.time.Duration;
+
+/** Thrown when a capped kind of work (e.g. concurrent exports) is at its limit; mapped to 503. */
+public class ServerBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServerBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
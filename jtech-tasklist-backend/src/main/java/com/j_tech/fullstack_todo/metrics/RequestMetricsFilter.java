@@ -0,0 +1,80 @@
+package com.j_tech.fullstack_todo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per endpoint, how many SQL statements a request ran, how long they took and
+ * how many entities were hydrated. Requests above
+ * {@code app.metrics.sql.max-statements-per-request} are logged and counted, which is
+ * how N+1 regressions surface in production without {@code show-sql}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final int maxStatements;
+
+    public RequestMetricsFilter(MeterRegistry registry,
+                                @Value("${app.metrics.sql.max-statements-per-request:25}") int maxStatements) {
+        this.registry = registry;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.statements());
+        Timer.builder("http.server.requests.sql.time")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.sqlNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("http.server.requests.entity.loads")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.entityLoads());
+
+        if (stats.statements() > maxStatements) {
+            registry.counter("http.server.requests.sql.excessive", "method", method, "uri", uri).increment();
+            log.warn("{} {} ran {} SQL statements (limit {}), {} ms in SQL, {} entities loaded",
+                    method, uri, stats.statements(), maxStatements,
+                    TimeUnit.NANOSECONDS.toMillis(stats.sqlNanos()), stats.entityLoads());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.j_tech.fullstack_todo.metrics;
+
+/**
+ * Per-thread SQL counters for the request being served. Hibernate's per-session
+ * listeners are not Spring beans, so they reach the current request through this
+ * thread-local rather than through injection.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long sqlNanos;
+    private int entityLoads;
+
+    private RequestSqlStats() {
+    }
+
+    public static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted(long nanos) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.sqlNanos += nanos;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) stats.entityLoads++;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long sqlNanos() {
+        return sqlNanos;
+    }
+
+    public int entityLoads() {
+        return entityLoads;
+    }
+}
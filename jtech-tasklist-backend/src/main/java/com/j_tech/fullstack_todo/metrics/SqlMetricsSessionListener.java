@@ -0,0 +1,33 @@
+package com.j_tech.fullstack_todo.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times every JDBC statement and batch executed by a Hibernate session. Registered
+ * through {@code hibernate.session.events.auto}, so Hibernate creates one per session.
+ */
+public class SqlMetricsSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestSqlStats.statementExecuted(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestSqlStats.statementExecuted(System.nanoTime() - batchStart);
+    }
+}
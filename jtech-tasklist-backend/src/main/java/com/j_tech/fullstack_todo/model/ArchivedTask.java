@@ -0,0 +1,42 @@
+package com.j_tech.fullstack_todo.model;
+
+import com.j_tech.fullstack_todo.datasource.ShardIds;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.*;
+
+/**
+ * Completed task moved out of {@code tasks} by the archiver. Keeps the original id and
+ * plain list/user ids (no foreign keys), so archiving never touches the hot tables'
+ * indexes and the archive can live on cheaper storage or be partitioned by date.
+ */
+@Entity @Table(name = "task_archive",
+        indexes = {
+                @Index(name = "idx_task_archive_list", columnList = "list_id, id"),
+                @Index(name = "idx_task_archive_user_completed", columnList = "user_id, completed_at"),
+                @Index(name = "idx_task_archive_bucket", columnList = "bucket, id")
+        })
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedTask {
+    @Id
+    private Long id;
+
+    @Column(name = "list_id", nullable = false)
+    private Long listId;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 140)
+    private String title;
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    private LocalDate dueDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime archivedAt;
+
+    // Read-only, see ShardIds.BUCKET_COLUMN.
+    @Column(name = "bucket", insertable = false, updatable = false, columnDefinition = ShardIds.BUCKET_COLUMN)
+    @Setter(AccessLevel.NONE)
+    private Integer bucket;
+}
@@ -0,0 +1,17 @@
+package com.j_tech.fullstack_todo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.*;
+
+/** Lease on a scheduled job, see {@code JobLocks}. One row per job, never deleted. */
+@Entity @Table(name = "job_locks")
+@Data @NoArgsConstructor @AllArgsConstructor
+public class JobLock {
+    @Id @Column(length = 64)
+    private String name;
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    @Column(name = "locked_by", nullable = false, length = 128)
+    private String lockedBy;
+}
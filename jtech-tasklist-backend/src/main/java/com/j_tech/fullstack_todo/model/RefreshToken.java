@@ -0,0 +1,46 @@
+package com.j_tech.fullstack_todo.model;
+
+import com.j_tech.fullstack_todo.datasource.ShardIds;
+import com.j_tech.fullstack_todo.datasource.Sharded;
+import com.j_tech.fullstack_todo.datasource.ShardedId;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.*;
+
+/**
+ * Refresh token, stored as the SHA-256 of the value handed to the client (32 bytes,
+ * unique index), never the value itself. Tokens descending from one login share a
+ * {@code familyId}; each refresh marks the presented token used and issues the next
+ * one, so presenting a used token means it was copied and the whole family is revoked.
+ */
+@Entity @Table(name = "refresh_tokens",
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+                @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at"),
+                @Index(name = "idx_refresh_tokens_bucket", columnList = "bucket, id")
+        })
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class RefreshToken implements Sharded {
+    @Id @ShardedId(sequence = "refresh_token_seq")
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "family_id", nullable = false)
+    private Long familyId;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    private LocalDateTime usedAt;
+
+    // Read-only, see ShardIds.BUCKET_COLUMN.
+    @Column(name = "bucket", insertable = false, updatable = false, columnDefinition = ShardIds.BUCKET_COLUMN)
+    @Setter(AccessLevel.NONE)
+    private Integer bucket;
+
+    @Override
+    public int shardBucket() {
+        return ShardIds.bucketOf(userId);
+    }
+}
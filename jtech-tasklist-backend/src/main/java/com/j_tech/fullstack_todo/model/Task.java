@@ -1,14 +1,27 @@
 package com.j_tech.fullstack_todo.model;
 
+import com.j_tech.fullstack_todo.datasource.ShardIds;
+import com.j_tech.fullstack_todo.datasource.Sharded;
+import com.j_tech.fullstack_todo.datasource.ShardedId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.*;
 
 @Entity @Table(name = "tasks",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"list_id", "title"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"list_id", "title"}),
+        indexes = {
+                @Index(name = "idx_tasks_list_rank", columnList = "list_id, rank_key, id"),
+                @Index(name = "idx_tasks_list_done", columnList = "list_id, done, rank_key, id"),
+                @Index(name = "idx_tasks_list_due", columnList = "list_id, due_date, id"),
+                @Index(name = "idx_tasks_completed", columnList = "completed_at"),
+                @Index(name = "idx_tasks_list_open_due", columnList = "list_id, done, due_date, id"),
+                @Index(name = "idx_tasks_bucket", columnList = "bucket, id")
+        })
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
-public class Task {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+public class Task implements Sharded {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can batch inserts;
+    // the id carries the list's bucket (see ShardIds).
+    @Id @ShardedId(sequence = "task_seq")
     private Long id;
 
     @ManyToOne(optional = false) @JoinColumn(name = "list_id")
@@ -20,5 +33,32 @@ public class Task {
     private String description;
     private boolean done;
     private LocalDate dueDate;
+    // Manual position within the list: a fractional key from RankKeys, ties broken by id.
+    // [0-9a-z] only, so any MySQL collation sorts it like the Java comparison does.
+    @Column(name = "rank_key", nullable = false, length = 64)
+    private String rank;
     private LocalDateTime createdAt = LocalDateTime.now();
+    // When the task was last marked done; null while open. Drives archiving.
+    private LocalDateTime completedAt;
+
+    // Every UPDATE writes the whole row, so a write-behind flush and a synchronous write
+    // racing on one task must not both commit: the second one fails on this.
+    @Version
+    private long version;
+
+    // Read-only, see ShardIds.BUCKET_COLUMN.
+    @Column(name = "bucket", insertable = false, updatable = false, columnDefinition = ShardIds.BUCKET_COLUMN)
+    @Setter(AccessLevel.NONE)
+    private Integer bucket;
+
+    public void setDone(boolean done) {
+        if (done && !this.done) completedAt = LocalDateTime.now();
+        if (!done) completedAt = null;
+        this.done = done;
+    }
+
+    @Override
+    public int shardBucket() {
+        return ShardIds.bucketOf(list.getId());
+    }
 }
\ No newline at end of file
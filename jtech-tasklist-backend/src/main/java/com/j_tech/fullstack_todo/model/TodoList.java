@@ -1,15 +1,24 @@
 package com.j_tech.fullstack_todo.model;
 
+import com.j_tech.fullstack_todo.datasource.ShardIds;
+import com.j_tech.fullstack_todo.datasource.Sharded;
+import com.j_tech.fullstack_todo.datasource.ShardedId;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import java.time.*;
 import java.util.*;
 
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "todo_lists")
 @Entity @Table(name = "todo_lists",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "name"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "name"}),
+        indexes = @Index(name = "idx_todo_lists_bucket", columnList = "bucket, id"))
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
-public class TodoList {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+public class TodoList implements Sharded {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can batch inserts;
+    // the id carries the owner's bucket (see ShardIds).
+    @Id @ShardedId(sequence = "todo_list_seq")
     private Long id;
 
     @ManyToOne(optional = false) @JoinColumn(name = "user_id")
@@ -21,6 +30,20 @@ public class TodoList {
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Bumped on rename and, through TodoListRepository.bumpVersions (native, evicts per id), on every task change.
+    @Version
+    private long version;
+
+    // Read-only, see ShardIds.BUCKET_COLUMN.
+    @Column(name = "bucket", insertable = false, updatable = false, columnDefinition = ShardIds.BUCKET_COLUMN)
+    @Setter(AccessLevel.NONE)
+    private Integer bucket;
+
     @OneToMany(mappedBy = "list", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks = new ArrayList<>();
-}
\ No newline at end of file
+
+    @Override
+    public int shardBucket() {
+        return ShardIds.bucketOf(user.getId());
+    }
+}
@@ -1,16 +1,33 @@
 package com.j_tech.fullstack_todo.model;
 
+import com.j_tech.fullstack_todo.datasource.ShardIds;
+import com.j_tech.fullstack_todo.datasource.Sharded;
+import com.j_tech.fullstack_todo.datasource.ShardedId;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import java.time.*;
 
-@Entity @Table(name = "users")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@Entity @Table(name = "users", indexes = @Index(name = "idx_users_bucket", columnList = "bucket, id"))
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
-public class User {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+public class User implements Sharded {
+    // Bucket from the e-mail, so a login finds the user's shard before reading anything.
+    @Id @ShardedId(sequence = "user_seq")
     private Long id;
     private String name;
     @Column(unique = true)
     private String email;
     private LocalDateTime createdAt = LocalDateTime.now();
-}
\ No newline at end of file
+
+    // Read-only, see ShardIds.BUCKET_COLUMN.
+    @Column(name = "bucket", insertable = false, updatable = false, columnDefinition = ShardIds.BUCKET_COLUMN)
+    @Setter(AccessLevel.NONE)
+    private Integer bucket;
+
+    @Override
+    public int shardBucket() {
+        return ShardIds.bucketOf(email);
+    }
+}
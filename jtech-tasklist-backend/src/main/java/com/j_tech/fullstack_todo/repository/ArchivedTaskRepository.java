@@ -0,0 +1,32 @@
+package com.j_tech.fullstack_todo.repository;
+
+import com.j_tech.fullstack_todo.dto.ArchivedTaskDTO;
+import com.j_tech.fullstack_todo.model.ArchivedTask;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.*;
+import java.util.*;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    @Query("select new com.j_tech.fullstack_todo.dto.ArchivedTaskDTO(a.id, a.listId, a.title, a.description, " +
+            "a.dueDate, a.completedAt, a.archivedAt) from ArchivedTask a " +
+            "where a.listId = :listId and a.id > :afterId order by a.id")
+    List<ArchivedTaskDTO> findPage(Long listId, long afterId, Limit limit);
+
+    /** Copies tasks into the archive in one INSERT ... SELECT. */
+    @Modifying
+    @Query("insert into ArchivedTask (id, listId, userId, title, description, dueDate, createdAt, completedAt, archivedAt) " +
+            "select t.id, l.id, l.user.id, t.title, t.description, t.dueDate, t.createdAt, t.completedAt, :now " +
+            "from Task t join t.list l where t.id in :ids")
+    int copyFromTasks(Collection<Long> ids, LocalDateTime now);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.listId = :listId")
+    int deleteAllByListIdInBulk(Long listId);
+}
@@ -0,0 +1,27 @@
+package com.j_tech.fullstack_todo.repository;
+
+import com.j_tech.fullstack_todo.model.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /** Takes an expired lease; 0 rows means another instance holds it (or it does not exist yet). */
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = :until, l.lockedBy = :owner where l.name = :name and l.lockedUntil <= :now")
+    int claim(String name, String owner, LocalDateTime now, LocalDateTime until);
+
+    /** First lease of a job; a concurrent first lease fails on the primary key. */
+    @Modifying
+    @Query("insert into JobLock (name, lockedUntil, lockedBy) values (:name, :until, :owner)")
+    int create(String name, String owner, LocalDateTime until);
+
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = :until where l.name = :name and l.lockedBy = :owner")
+    int release(String name, String owner, LocalDateTime until);
+}
@@ -1,13 +1,121 @@
 package com.j_tech.fullstack_todo.repository;
 
+import com.j_tech.fullstack_todo.dto.DayCount;
+import com.j_tech.fullstack_todo.dto.ListTaskRow;
+import com.j_tech.fullstack_todo.dto.ListTitle;
+import com.j_tech.fullstack_todo.dto.TaskOwner;
+import com.j_tech.fullstack_todo.dto.TaskExportRow;
+import com.j_tech.fullstack_todo.dto.TaskRecord;
 import com.j_tech.fullstack_todo.model.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findAllByListId(Long listId);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     boolean existsByListIdAndTitle(Long listId, String title);
-}
\ No newline at end of file
+    boolean existsByListId(Long listId);
+
+    /** One statement for the whole list; nothing is loaded into the persistence context. */
+    @Modifying
+    @Query("delete from Task t where t.list.id = :listId")
+    int deleteAllByListIdInBulk(Long listId);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteAllByIdInBulk(Collection<Long> ids);
+
+    /**
+     * Served by idx_tasks_completed: completedAt is only set while done, so no leading
+     * {@code done} column (which would tempt the planner for open-task queries).
+     */
+    @Query("select t.id from Task t where t.completedAt < :cutoff and t.done = true order by t.completedAt")
+    List<Long> findArchivableIds(LocalDateTime cutoff, Limit limit);
+
+    @Query("select new com.j_tech.fullstack_todo.dto.ListTitle(t.list.id, t.title) from Task t " +
+            "where t.list.id in :listIds and t.title in :titles")
+    List<ListTitle> findTitles(Collection<Long> listIds, Collection<String> titles);
+
+    @Query("select t from Task t join fetch t.list l join fetch l.user where t.id in :ids")
+    List<Task> findAllWithListByIdIn(Collection<Long> ids);
+
+    @Query("select new com.j_tech.fullstack_todo.dto.TaskOwner(t.id, l.id, l.user.id) " +
+            "from Task t join t.list l where t.id in :ids")
+    List<TaskOwner> findOwners(Collection<Long> ids);
+
+    @Query("select new com.j_tech.fullstack_todo.dto.DayCount(t.dueDate, count(t.id)) " +
+            "from Task t join t.list l where l.user.id = :userId and t.done = false " +
+            "and t.dueDate >= :from and t.dueDate <= :to group by t.dueDate")
+    List<DayCount> countAgendaByDay(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * First {@code limit} open tasks (by rank) of every list of a user, in (list, rank, id)
+     * order: one ROW_NUMBER() pass over idx_tasks_list_done instead of a query per list.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.j_tech.fullstack_todo.dto.ListTaskRow(x.listId, x.id, x.title, x.description, x.done, x.dueDate, x.rank) " +
+            "from (select l.id as listId, t.id as id, t.title as title, t.description as description, t.done as done, " +
+            "t.dueDate as dueDate, t.rank as rank, row_number() over (partition by l.id order by t.rank, t.id) as rn " +
+            "from Task t join t.list l where l.user.id = :userId and t.done = false) x " +
+            "where x.rn <= :limit order by x.listId, x.rank, x.id")
+    Stream<ListTaskRow> streamOpenTopN(Long userId, int limit);
+
+    /**
+     * Keyset page of a user's tasks for the account export, in (list, rank, id) order so
+     * an import appends them back in the same order; the first page starts after
+     * (0, "", 0). One short query per page, so a slow download holds no connection.
+     */
+    @Query("select new com.j_tech.fullstack_todo.dto.TaskExportRow(t.id, l.id, t.title, t.description, t.done, " +
+            "t.dueDate, t.createdAt, t.rank) from Task t join t.list l where l.user.id = :userId " +
+            "and (l.id > :afterListId or (l.id = :afterListId and (t.rank > :afterRank " +
+            "or (t.rank = :afterRank and t.id > :afterId)))) order by l.id, t.rank, t.id")
+    List<TaskExportRow> findExportPage(Long userId, long afterListId, String afterRank, long afterId, Limit limit);
+
+    /**
+     * Forward-only scroll over every task of a user, in (list, rank, id) order, for
+     * building a search index in one pass; must be consumed in a transaction and closed.
+     * On MySQL the fetch size only streams with {@code useCursorFetch=true} on the URL.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.j_tech.fullstack_todo.dto.TaskRecord(t.id, l.id, t.title, t.description, t.done, " +
+            "t.dueDate, t.createdAt) from Task t join t.list l where l.user.id = :userId order by l.id, t.rank, t.id")
+    Stream<TaskRecord> streamForExport(Long userId);
+
+    @Query("select new com.j_tech.fullstack_todo.dto.TaskRecord(t.id, l.id, t.title, t.description, t.done, " +
+            "t.dueDate, t.createdAt) from Task t join t.list l where t.id in :ids")
+    List<TaskRecord> findRecordsByIdIn(Collection<Long> ids);
+
+    @Query("select t from Task t where t.list.id = :listId order by t.rank, t.id")
+    List<Task> findAllByListIdInRankOrder(Long listId);
+
+    /*
+     * Locking reads for writers choosing a new rank. Callers bump the list version first,
+     * which queues them behind other writers and the rebalancer on the list row; a locking
+     * read then sees the latest committed keys rather than the transaction's snapshot.
+     */
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t.rank from Task t where t.id = :id and t.list.id = :listId")
+    Optional<String> lockRank(Long id, Long listId);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t.rank from Task t where t.list.id = :listId order by t.rank desc, t.id desc")
+    List<String> lockLastRank(Long listId, Limit limit);
+
+    /** Keys of the tasks following (rank, afterId) in the list, skipping {@code excludeId}. */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t.rank from Task t where t.list.id = :listId and t.id <> :excludeId " +
+            "and (t.rank > :rank or (t.rank = :rank and t.id > :afterId)) order by t.rank, t.id")
+    List<String> lockRanksAfter(Long listId, String rank, Long afterId, Long excludeId, Limit limit);
+}
@@ -0,0 +1,23 @@
+package com.j_tech.fullstack_todo.repository;
+
+import com.j_tech.fullstack_todo.dto.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+public interface TaskRepositoryCustom {
+    /**
+     * Keyset page of a list's tasks, projected straight into {@link TaskDTO} so no
+     * {@code Task}/{@code TodoList} entity is hydrated. Ordered by (rank, id) over
+     * idx_tasks_list_rank; {@code afterRank}/{@code afterId} is the last row of the
+     * previous page (null for the first page).
+     */
+    List<TaskDTO> findPage(Long listId, TaskFilter filter, String afterRank, Long afterId, int limit);
+
+    /**
+     * Keyset page of a user's open tasks due in [from, to], across all lists, ordered by
+     * (dueDate, id); {@code afterDue}/{@code afterId} is the last row of the previous page.
+     * One join from the user's lists into idx_tasks_list_open_due.
+     */
+    List<AgendaItem> findAgenda(Long userId, LocalDate from, LocalDate to, LocalDate afterDue, Long afterId, int limit);
+}
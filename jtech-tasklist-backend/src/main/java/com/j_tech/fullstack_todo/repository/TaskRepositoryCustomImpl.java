@@ -0,0 +1,59 @@
+package com.j_tech.fullstack_todo.repository;
+
+import com.j_tech.fullstack_todo.dto.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.*;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<TaskDTO> findPage(Long listId, TaskFilter filter, String afterRank, Long afterId, int limit) {
+        // Only the predicates that are actually set go into the query, so MySQL can pick
+        // the matching (list_id, ...) composite index instead of an "or :p is null" plan.
+        StringBuilder jpql = new StringBuilder(
+                "select new com.j_tech.fullstack_todo.dto.TaskDTO(t.id, t.title, t.description, t.done, t.dueDate, t.rank) " +
+                "from Task t where t.list.id = :listId");
+        if (filter.done() != null) jpql.append(" and t.done = :done");
+        if (filter.dueFrom() != null) jpql.append(" and t.dueDate >= :dueFrom");
+        if (filter.dueTo() != null) jpql.append(" and t.dueDate <= :dueTo");
+        if (afterId != null) jpql.append(filter.descending()
+                ? " and (t.rank < :afterRank or (t.rank = :afterRank and t.id < :afterId))"
+                : " and (t.rank > :afterRank or (t.rank = :afterRank and t.id > :afterId))");
+        jpql.append(filter.descending() ? " order by t.rank desc, t.id desc" : " order by t.rank asc, t.id asc");
+
+        TypedQuery<TaskDTO> q = em.createQuery(jpql.toString(), TaskDTO.class)
+                .setParameter("listId", listId)
+                .setMaxResults(limit);
+        if (filter.done() != null) q.setParameter("done", filter.done());
+        if (filter.dueFrom() != null) q.setParameter("dueFrom", filter.dueFrom());
+        if (filter.dueTo() != null) q.setParameter("dueTo", filter.dueTo());
+        if (afterId != null) q.setParameter("afterRank", afterRank).setParameter("afterId", afterId);
+        return q.getResultList();
+    }
+
+    @Override
+    public List<AgendaItem> findAgenda(Long userId, LocalDate from, LocalDate to, LocalDate afterDue, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "select new com.j_tech.fullstack_todo.dto.AgendaItem(t.id, l.id, l.name, t.title, t.description, t.dueDate) " +
+                "from Task t join t.list l where l.user.id = :userId and t.done = false " +
+                "and t.dueDate >= :from and t.dueDate <= :to");
+        if (afterDue != null)
+            jpql.append(" and (t.dueDate > :afterDue or (t.dueDate = :afterDue and t.id > :afterId))");
+        jpql.append(" order by t.dueDate, t.id");
+
+        TypedQuery<AgendaItem> q = em.createQuery(jpql.toString(), AgendaItem.class)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(limit);
+        if (afterDue != null) q.setParameter("afterDue", afterDue).setParameter("afterId", afterId);
+        return q.getResultList();
+    }
+}
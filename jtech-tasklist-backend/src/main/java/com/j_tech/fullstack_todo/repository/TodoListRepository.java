@@ -1,13 +1,56 @@
 package com.j_tech.fullstack_todo.repository;
 
 import com.j_tech.fullstack_todo.model.*;
+import com.j_tech.fullstack_todo.dto.ListDTO;
+import com.j_tech.fullstack_todo.dto.ListRecord;
+import com.j_tech.fullstack_todo.dto.ListVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.*;
 import java.util.*;
 
 @Repository
-public interface TodoListRepository extends JpaRepository<TodoList, Long> {
+public interface TodoListRepository extends JpaRepository<TodoList, Long>, TodoListRepositoryCustom {
     List<TodoList> findAllByUserId(Long userId);
     boolean existsByUserIdAndName(Long userId, String name);
-}
\ No newline at end of file
+
+    @Query("select new com.j_tech.fullstack_todo.dto.ListDTO(l.id, l.name, count(t.id), " +
+            "sum(case when t.done = true then 1L else 0L end), l.version, l.updatedAt) " +
+            "from TodoList l left join l.tasks t where l.user.id = :userId " +
+            "group by l.id, l.name, l.version, l.updatedAt order by l.id")
+    List<ListDTO> findSummariesByUserId(Long userId);
+
+    @Query("select new com.j_tech.fullstack_todo.dto.ListDTO(l.id, l.name, count(t.id), " +
+            "sum(case when t.done = true then 1L else 0L end), l.version, l.updatedAt) " +
+            "from TodoList l left join l.tasks t where l.id = :id " +
+            "group by l.id, l.name, l.version, l.updatedAt")
+    Optional<ListDTO> findSummaryById(Long id);
+
+    /** Query-cached: the owner never changes, and version bumps do not invalidate todo_lists results. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select l.user.id from TodoList l where l.id = :id")
+    Optional<Long> findUserIdById(Long id);
+
+    @Modifying
+    @Query("delete from TodoList l where l.id = :id")
+    int deleteByIdInBulk(Long id);
+
+    @Query("select l.version from TodoList l where l.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select new com.j_tech.fullstack_todo.dto.ListVersion(l.id, l.version) from TodoList l " +
+            "where l.user.id = :userId order by l.id")
+    List<ListVersion> findVersionsByUserId(Long userId);
+
+    /** Keyset page of a user's lists for the account export, in id order. */
+    @Query("select new com.j_tech.fullstack_todo.dto.ListRecord(l.id, l.name, l.createdAt, l.updatedAt) " +
+            "from TodoList l where l.user.id = :userId and l.id > :afterId order by l.id")
+    List<ListRecord> findExportPage(Long userId, long afterId, Limit limit);
+}
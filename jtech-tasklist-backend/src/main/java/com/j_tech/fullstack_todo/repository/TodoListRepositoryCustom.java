@@ -0,0 +1,21 @@
+package com.j_tech.fullstack_todo.repository;
+
+import com.j_tech.fullstack_todo.model.TodoList;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface TodoListRepositoryCustom {
+    /** Marks lists as changed after a task mutation; one statement however many lists. */
+    int bumpVersions(Collection<Long> ids, LocalDateTime now);
+
+    /** Compare-and-bump for If-Match: 0 rows means the caller's version is stale. */
+    int bumpVersionIfMatches(Long id, long expected, LocalDateTime now);
+
+    /**
+     * The list as the database has it, skipping the second-level cache: the cached copy is
+     * node-local, so its {@code version} can lag a write made through another instance.
+     */
+    Optional<TodoList> findUncached(Long id);
+}
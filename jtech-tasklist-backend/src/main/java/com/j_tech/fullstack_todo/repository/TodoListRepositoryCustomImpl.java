@@ -0,0 +1,78 @@
+package com.j_tech.fullstack_todo.repository;
+
+import com.j_tech.fullstack_todo.model.TodoList;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Version bumps as native SQL. An HQL bulk update makes Hibernate evict the entire
+ * {@code TodoList} second-level cache region; here the query declares a query space no
+ * entity maps to, so nothing is evicted implicitly, and only the bumped ids are evicted,
+ * once now and once after commit (a concurrent reader may have re-cached the
+ * pre-commit row in between). Because the bump does not touch the {@code todo_lists}
+ * query space, cached queries over that table must not read {@code version} or
+ * {@code updated_at}; the cached owner lookup only reads {@code user_id}.
+ */
+class TodoListRepositoryCustomImpl implements TodoListRepositoryCustom {
+
+    private static final String VERSION_SPACE = "todo_lists#version";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int bumpVersions(Collection<Long> ids, LocalDateTime now) {
+        int n = em.createNativeQuery("update todo_lists set version = version + 1, updated_at = :now where id in (:ids)")
+                .setParameter("now", now)
+                .setParameter("ids", ids)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(VERSION_SPACE)
+                .executeUpdate();
+        evict(ids);
+        return n;
+    }
+
+    @Override
+    public int bumpVersionIfMatches(Long id, long expected, LocalDateTime now) {
+        int n = em.createNativeQuery("update todo_lists set version = version + 1, updated_at = :now " +
+                        "where id = :id and version = :expected")
+                .setParameter("now", now)
+                .setParameter("id", id)
+                .setParameter("expected", expected)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(VERSION_SPACE)
+                .executeUpdate();
+        if (n > 0) evict(List.of(id));
+        return n;
+    }
+
+    @Override
+    public Optional<TodoList> findUncached(Long id) {
+        return Optional.ofNullable(em.find(TodoList.class, id,
+                Map.of("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS)));
+    }
+
+    private void evict(Collection<Long> ids) {
+        jakarta.persistence.Cache cache = em.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(TodoList.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> copy = List.copyOf(ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    copy.forEach(id -> cache.evict(TodoList.class, id));
+                }
+            });
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.j_tech.fullstack_todo.repository;
 
 import com.j_tech.fullstack_todo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /** Query-cached (when the second-level cache is on); any write to users invalidates it. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.j_tech.fullstack_todo.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/** Opaque keyset cursor for search pages: position (score, task id) of the last hit. */
+final class SearchCursor {
+    private static final String PREFIX = "s1:";
+
+    record Position(double score, long id) {
+        /** Whether a hit at (score, id) sorts after this position. */
+        boolean isBefore(double otherScore, long otherId) {
+            return otherScore < score || (otherScore == score && otherId < id);
+        }
+    }
+
+    private SearchCursor() {
+    }
+
+    static String encode(double score, long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + score + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) throw new IllegalArgumentException("Cursor inválido");
+            String[] parts = raw.substring(PREFIX.length()).split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Cursor inválido");
+            double score = Double.parseDouble(parts[0]);
+            if (!Double.isFinite(score)) throw new IllegalArgumentException("Cursor inválido");
+            return new Position(score, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
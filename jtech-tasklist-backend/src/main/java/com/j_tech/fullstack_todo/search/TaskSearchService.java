@@ -0,0 +1,148 @@
+package com.j_tech.fullstack_todo.search;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.j_tech.fullstack_todo.dto.SearchHit;
+import com.j_tech.fullstack_todo.dto.SearchPage;
+import com.j_tech.fullstack_todo.dto.TaskRecord;
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+import com.j_tech.fullstack_todo.repository.TaskRepository;
+import com.j_tech.fullstack_todo.service.TaskWriteBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over the titles and descriptions of a user's tasks. The index of a
+ * user is built on their first search from one scroll over their tasks, kept current
+ * from {@link ChangeEvent}s while it is cached, and dropped when the cache needs the room
+ * (weighed by postings) or {@code app.search.ttl} after it was built; the next search
+ * rebuilds it. Events only reach the instance that committed the change, so the TTL is
+ * what bounds how long writes made through other instances stay unsearchable here;
+ * expiring on access instead would keep a frequently searched index stale forever.
+ * <p>
+ * Builds and refreshes read in a read-write transaction so they hit the primary: a
+ * lagging replica would make a just-added task look deleted. Changes still in the
+ * write-behind buffer are shown on the hits but only matched once flushed.
+ */
+@Service
+public class TaskSearchService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final TaskRepository tasks;
+    private final TransactionTemplate tx;
+    private final TaskWriteBuffer buffer;
+    private final AsyncCache<Long, UserIndex> indexes;
+    private final Timer builds;
+
+    public TaskSearchService(TaskRepository tasks, TransactionTemplate tx, TaskWriteBuffer buffer,
+                             @Value("${app.search.max-weight:5000000}") long maxWeight,
+                             @Value("${app.search.ttl:PT5M}") Duration ttl,
+                             MeterRegistry registry) {
+        this.tasks = tasks;
+        this.tx = tx;
+        this.buffer = buffer;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .<Long, UserIndex>weigher((userId, index) -> index.weight())
+                // Counted from the build: the re-put after each search's refresh must not extend it.
+                .expireAfter(Expiry.<Long, UserIndex>creating((userId, index) -> ttl))
+                .recordStats()
+                .buildAsync();
+        this.builds = registry.timer("search.index.build");
+        CaffeineCacheMetrics.monitor(registry, indexes, "search.indexes");
+        Gauge.builder("search.index.weight", indexes,
+                        c -> c.synchronous().policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .register(registry);
+    }
+
+    public SearchPage search(Long userId, String q, String cursor, int limit) {
+        List<String> terms = TextAnalyzer.query(q);
+        if (terms.isEmpty()) throw new IllegalArgumentException("Informe ao menos um termo com 2 caracteres");
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        SearchCursor.Position after = SearchCursor.decode(cursor);
+
+        CompletableFuture<UserIndex> entry = entry(userId);
+        UserIndex index = join(entry);
+        index.refresh(ids -> tx.execute(s -> tasks.findRecordsByIdIn(ids)));
+        // Re-put so the cache re-weighs the index; replace() keeps out an index that was
+        // evicted meanwhile (it stopped receiving events when it left the cache).
+        indexes.asMap().replace(userId, entry, CompletableFuture.completedFuture(index));
+
+        List<UserIndex.Hit> hits = index.search(terms, after, size + 1);
+        boolean more = hits.size() > size;
+        if (more) hits = hits.subList(0, size);
+        if (hits.isEmpty()) return new SearchPage(List.of(), null);
+
+        Map<Long, TaskRecord> rows = tasks.findRecordsByIdIn(hits.stream().map(UserIndex.Hit::id).toList()).stream()
+                .collect(Collectors.toMap(TaskRecord::id, Function.identity()));
+        // A row deleted after the refresh is skipped; its event has not reached the index yet.
+        List<SearchHit> items = hits.stream()
+                .filter(h -> rows.containsKey(h.id()))
+                .map(h -> SearchHit.of(buffer.overlay(rows.get(h.id())), h.score()))
+                .toList();
+        UserIndex.Hit last = hits.get(hits.size() - 1);
+        return new SearchPage(items, more ? SearchCursor.encode(last.score(), last.id()) : null);
+    }
+
+    /**
+     * An index being built gets the event once the build completes, so nothing that
+     * commits after the build's snapshot is lost; users without an index are skipped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ChangeEvent e) {
+        CompletableFuture<UserIndex> entry = indexes.getIfPresent(e.userId());
+        if (entry != null) entry.thenAccept(index -> index.on(e));
+    }
+
+    /** The cached future, building the index on the calling thread on a miss. */
+    private CompletableFuture<UserIndex> entry(Long userId) {
+        CompletableFuture<UserIndex> existing = indexes.getIfPresent(userId);
+        if (existing != null) return existing;
+        CompletableFuture<UserIndex> mine = new CompletableFuture<>();
+        existing = indexes.asMap().putIfAbsent(userId, mine);
+        if (existing != null) return existing;
+        try {
+            mine.complete(builds.record(() -> build(userId)));
+            return mine;
+        } catch (RuntimeException | Error e) {
+            indexes.asMap().remove(userId, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private UserIndex build(Long userId) {
+        UserIndex index = new UserIndex();
+        tx.executeWithoutResult(s -> {
+            try (Stream<TaskRecord> rows = tasks.streamForExport(userId)) {
+                rows.forEach(index::add);
+            }
+        });
+        return index;
+    }
+
+    private static UserIndex join(CompletableFuture<UserIndex> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
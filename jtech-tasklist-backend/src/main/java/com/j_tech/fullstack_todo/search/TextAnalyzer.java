@@ -0,0 +1,63 @@
+package com.j_tech.fullstack_todo.search;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into index terms: NFD-decomposed with the combining marks dropped (so
+ * "ação" and "acao" meet), lower-cased, cut at anything that is not a letter or digit.
+ * One-character tokens and the commonest Portuguese function words are not indexed.
+ */
+final class TextAnalyzer {
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_TERM_LENGTH = 40;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "as", "os", "ao", "aos", "da", "das", "de", "do", "dos", "em", "na", "nas", "no", "nos",
+            "um", "uma", "uns", "umas", "para", "pra", "por", "com", "sem", "que", "se", "ou", "the", "and", "of");
+
+    private TextAnalyzer() {
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /** Term frequencies of {@code text}; {@code null} and blank text yield no terms. */
+    static Map<String, Integer> terms(String text) {
+        if (text == null || text.isBlank()) return Map.of();
+        Map<String, Integer> out = new HashMap<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (indexable(token)) out.merge(clip(token), 1, Integer::sum);
+        }
+        return out;
+    }
+
+    /**
+     * Query terms in input order without duplicates. The last one is kept even when it is
+     * a stopword: while the user types, "da" may be the start of "dados".
+     */
+    static List<String> query(String q) {
+        if (q == null || q.isBlank()) return List.of();
+        String[] tokens = SEPARATORS.split(fold(q).strip());
+        LinkedHashSet<String> out = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            boolean last = i == tokens.length - 1;
+            if (token.length() >= MIN_TERM_LENGTH && (last || !STOPWORDS.contains(token))) out.add(clip(token));
+        }
+        return List.copyOf(out);
+    }
+
+    private static boolean indexable(String token) {
+        return token.length() >= MIN_TERM_LENGTH && !STOPWORDS.contains(token);
+    }
+
+    private static String clip(String token) {
+        return token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token;
+    }
+}
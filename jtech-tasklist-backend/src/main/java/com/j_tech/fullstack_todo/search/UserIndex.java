@@ -0,0 +1,202 @@
+package com.j_tech.fullstack_todo.search;
+
+import com.j_tech.fullstack_todo.dto.TaskRecord;
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Inverted index over the tasks of one user. Terms live in a sorted map so a prefix is a
+ * range scan; each posting carries the term's weight in the task (title occurrences
+ * count {@value #TITLE_WEIGHT}x).
+ * <p>
+ * Change events never touch the postings: they only record which tasks (or lists) went
+ * stale, which keeps the write path lock-free. The next search drains those marks,
+ * re-reads the affected rows in a few IN queries and patches the postings, so a batch of
+ * a thousand writes costs the next search one or two queries instead of a thousand.
+ * A {@link ReentrantLock} rather than {@code synchronized}, since that refresh does JDBC
+ * work while holding it.
+ */
+final class UserIndex {
+    static final int TITLE_WEIGHT = 3;
+    /** A prefix-only match is worth this much of an exact one. */
+    static final double PREFIX_FACTOR = 0.6;
+    /** Done tasks still match, below open ones. */
+    static final double DONE_FACTOR = 0.5;
+    static final int REFRESH_CHUNK = 500;
+
+    record Hit(long id, double score) {
+    }
+
+    private record Doc(long listId, boolean done, Map<String, Integer> terms) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private long postingCount;
+
+    private final Set<Long> staleTasks = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deletedTasks = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deletedLists = ConcurrentHashMap.newKeySet();
+    private final Set<Long> archivedLists = ConcurrentHashMap.newKeySet();
+
+    /** Only called while building, before the index is visible to searches. */
+    void add(TaskRecord r) {
+        put(r);
+    }
+
+    void on(ChangeEvent e) {
+        switch (e.type()) {
+            case TASK_ADDED, TASK_UPDATED -> staleTasks.add(e.taskId());
+            case TASK_DELETED -> deletedTasks.add(e.taskId());
+            case LIST_DELETED -> deletedLists.add(e.listId());
+            case TASKS_ARCHIVED -> archivedLists.add(e.listId());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Applies the pending marks; {@code loader} reads the current rows of the given ids
+     * (missing ones were deleted). Marks taken by a failed refresh are put back.
+     */
+    void refresh(Function<Collection<Long>, List<TaskRecord>> loader) {
+        if (staleTasks.isEmpty() && deletedTasks.isEmpty() && deletedLists.isEmpty() && archivedLists.isEmpty()) return;
+        lock.lock();
+        try {
+            for (Long id : drain(deletedTasks)) remove(id);
+            Set<Long> lists = drain(deletedLists);
+            if (!lists.isEmpty()) {
+                List<Long> gone = docs.entrySet().stream().filter(d -> lists.contains(d.getValue().listId())).map(Map.Entry::getKey).toList();
+                gone.forEach(this::remove);
+            }
+            Set<Long> stale = drain(staleTasks);
+            Set<Long> archived = drain(archivedLists);
+            if (!archived.isEmpty()) {
+                docs.forEach((id, d) -> {
+                    if (d.done() && archived.contains(d.listId())) stale.add(id);
+                });
+            }
+            List<Long> ids = new ArrayList<>(stale);
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + REFRESH_CHUNK));
+                List<TaskRecord> rows;
+                try {
+                    rows = loader.apply(chunk);
+                } catch (RuntimeException e) {
+                    staleTasks.addAll(ids.subList(from, ids.size()));
+                    throw e;
+                }
+                Set<Long> missing = new HashSet<>(chunk);
+                for (TaskRecord r : rows) {
+                    missing.remove(r.id());
+                    put(r);
+                }
+                missing.forEach(this::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tasks matching every term (the last one as a prefix), by score then id, both
+     * descending, strictly after {@code after}; at most {@code limit} hits.
+     */
+    List<Hit> search(List<String> terms, SearchCursor.Position after, int limit) {
+        lock.lock();
+        try {
+            if (docs.isEmpty() || terms.isEmpty()) return List.of();
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Double> termScores = score(terms.get(i), i == terms.size() - 1);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> both = new HashMap<>();
+                    for (Map.Entry<Long, Double> s : scores.entrySet()) {
+                        Double t = termScores.get(s.getKey());
+                        if (t != null) both.put(s.getKey(), s.getValue() + t);
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+            Comparator<Hit> order = Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id).reversed();
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, order.reversed());
+            for (Map.Entry<Long, Double> s : scores.entrySet()) {
+                double score = docs.get(s.getKey()).done() ? s.getValue() * DONE_FACTOR : s.getValue();
+                Hit hit = new Hit(s.getKey(), score);
+                if (after != null && !after.isBefore(hit.score(), hit.id())) continue;
+                top.add(hit);
+                if (top.size() > limit) top.poll();
+            }
+            List<Hit> out = new ArrayList<>(top);
+            out.sort(order);
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Postings plus documents: what the per-user cache weighs the index by. */
+    int weight() {
+        lock.lock();
+        try {
+            return (int) Math.min(Integer.MAX_VALUE, postingCount + docs.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<Long, Double> score(String term, boolean prefix) {
+        Map<String, Map<Long, Integer>> matching = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+        Map<Long, Double> out = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> m : matching.entrySet()) {
+            double idf = Math.log(1 + (double) docs.size() / m.getValue().size());
+            double factor = m.getKey().equals(term) ? 1 : PREFIX_FACTOR;
+            for (Map.Entry<Long, Integer> p : m.getValue().entrySet()) {
+                // Max, not sum, over the expansions of a prefix: "proj" should not favour a
+                // task for saying both "projeto" and "projetos".
+                out.merge(p.getKey(), (1 + Math.log(p.getValue())) * idf * factor, Math::max);
+            }
+        }
+        return out;
+    }
+
+    private void put(TaskRecord r) {
+        remove(r.id());
+        Map<String, Integer> terms = new HashMap<>();
+        TextAnalyzer.terms(r.title()).forEach((t, n) -> terms.merge(t, n * TITLE_WEIGHT, Integer::sum));
+        TextAnalyzer.terms(r.description()).forEach((t, n) -> terms.merge(t, n, Integer::sum));
+        docs.put(r.id(), new Doc(r.listId(), r.done(), terms));
+        terms.forEach((t, w) -> postings.computeIfAbsent(t, k -> new HashMap<>()).put(r.id(), w));
+        postingCount += terms.size();
+    }
+
+    private void remove(Long id) {
+        Doc old = docs.remove(id);
+        if (old == null) return;
+        for (String t : old.terms().keySet()) {
+            Map<Long, Integer> p = postings.get(t);
+            p.remove(id);
+            if (p.isEmpty()) postings.remove(t);
+        }
+        postingCount -= old.terms().size();
+    }
+
+    private static Set<Long> drain(Set<Long> marks) {
+        Set<Long> out = new HashSet<>();
+        for (Iterator<Long> it = marks.iterator(); it.hasNext(); ) {
+            out.add(it.next());
+            it.remove();
+        }
+        return out;
+    }
+}
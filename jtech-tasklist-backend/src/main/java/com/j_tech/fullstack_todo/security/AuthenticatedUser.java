@@ -0,0 +1,43 @@
+package com.j_tech.fullstack_todo.security;
+
+import com.j_tech.fullstack_todo.dto.UserDTO;
+import com.j_tech.fullstack_todo.model.User;
+import io.jsonwebtoken.Claims;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Principal built from access-token claims alone: the subject is the user id and the
+ * profile travels as {@code name}/{@code email} claims, so no request needs a user
+ * lookup. {@link #getName()} is the id, which is what rate limiting, idempotency keys
+ * and read-your-writes routing key on.
+ */
+public record AuthenticatedUser(Long id, String name, String email) implements Principal {
+
+    static final String NAME_CLAIM = "name";
+    static final String EMAIL_CLAIM = "email";
+
+    /** @throws NumberFormatException if the subject is not a user id (tokens issued before ids were subjects) */
+    public static AuthenticatedUser from(Claims claims) {
+        return new AuthenticatedUser(Long.valueOf(claims.getSubject()),
+                claims.get(NAME_CLAIM, String.class), claims.get(EMAIL_CLAIM, String.class));
+    }
+
+    public static Map<String, Object> claimsOf(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        if (user.getName() != null) claims.put(NAME_CLAIM, user.getName());
+        if (user.getEmail() != null) claims.put(EMAIL_CLAIM, user.getEmail());
+        return claims;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(id);
+    }
+
+    public UserDTO toDTO() {
+        return new UserDTO(id, name, email);
+    }
+}
@@ -1,7 +1,6 @@
 package com.j_tech.fullstack_todo.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -37,16 +36,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
             try {
-                Jws<Claims> jws = jwtService.parseAndValidate(token);
-                Claims claims = jws.getPayload();
+                Claims claims = jwtService.verify(token);
 
-                String subject = claims.getSubject();
                 var authentication = new UsernamePasswordAuthenticationToken(
-                        subject, null, Collections.emptyList());
+                        AuthenticatedUser.from(claims), null, Collections.emptyList());
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            } catch (JwtException ex) {
+            } catch (JwtException | IllegalArgumentException ex) {
                 SecurityContextHolder.clearContext();
             }
         }
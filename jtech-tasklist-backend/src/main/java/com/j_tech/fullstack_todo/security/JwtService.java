@@ -1,7 +1,9 @@
 package com.j_tech.fullstack_todo.security;
 
+import com.j_tech.fullstack_todo.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.io.Decoders;
@@ -23,10 +25,17 @@ public class JwtService {
     @Value("${security.jwt.secret:ZmFrZS1qd3Qtc2VjcmV0LWZvci10ZXN0aW5nLWF0LWxlYXN0LTMyLWNoYXJz}")
     private String secret;
 
-    @Value("${security.jwt.expiration-seconds:86400}")
+    @Value("${security.jwt.expiration-seconds:900}")
     private long expirationSeconds;
 
     private SecretKey key;
+    private JwtParser parser;
+
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtService(VerifiedTokenCache verifiedTokens) {
+        this.verifiedTokens = verifiedTokens;
+    }
 
     @PostConstruct
     void init() {
@@ -36,6 +45,8 @@ public class JwtService {
         } catch (IllegalArgumentException e) {
             this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         }
+        // JwtParser is immutable and thread-safe; build it once instead of per request.
+        this.parser = Jwts.parser().verifyWith(key).build();
     }
 
     public String generateToken(String subject) {
@@ -56,6 +67,15 @@ public class JwtService {
                 .compact();
     }
 
+    /** Short-lived access token: subject is the user id, profile fields are claims. */
+    public String generateAccessToken(User user) {
+        return generateToken(String.valueOf(user.getId()), AuthenticatedUser.claimsOf(user));
+    }
+
+    public long getExpirationSeconds() {
+        return expirationSeconds;
+    }
+
     public String extractUsername(String token) {
         return parse(token).getPayload().getSubject();
     }
@@ -72,16 +92,18 @@ public class JwtService {
     }
 
     private Jws<Claims> parse(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token);
+        return parser.parseSignedClaims(token);
     }
 
     public Jws<Claims> parseAndValidate(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token);
+        return parser.parseSignedClaims(token);
+    }
+
+    /**
+     * Same checks as {@link #parseAndValidate(String)}, but a token that was already
+     * verified is answered from {@link VerifiedTokenCache} until it expires.
+     */
+    public Claims verify(String token) {
+        return verifiedTokens.get(token, t -> parser.parseSignedClaims(t).getPayload());
     }
 }
@@ -0,0 +1,91 @@
+package com.j_tech.fullstack_todo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.security.RateLimiter.RouteClass;
+import com.j_tech.fullstack_todo.service.RefreshTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs after {@link JwtAuthenticationFilter}, so authenticated clients are limited by
+ * subject (a shared NAT does not share their budget) and anonymous ones by remote
+ * address: the client's, not the load balancer's, as Tomcat takes it from
+ * {@code X-Forwarded-For} when the request comes through a trusted proxy
+ * ({@code server.tomcat.remoteip.internal-proxies}). Refresh and logout carry no access
+ * token; here they are limited by address, on a budget of their own so the sessions
+ * behind one address do not drain its login budget. The user a refresh token names is
+ * unverified until its hash is found, so {@link RefreshTokenService} charges the
+ * per-user budget only then: a forged prefix neither escapes the address budget nor
+ * spends someone else's. Not a {@code @Component}: it is added to the security chain
+ * only, never to the servlet filter chain as well.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter limiter;
+    private final ObjectMapper mapper;
+
+    public RateLimitFilter(RateLimiter limiter, ObjectMapper mapper) {
+        this.limiter = limiter;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteClass routeClass = routeClass(request);
+        String client = routeClass == RouteClass.REFRESH ? address(request) : client(request);
+        long waitNanos = limiter.tryAcquire(routeClass, client);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", HttpStatus.TOO_MANY_REQUESTS.value(),
+                "code", "RATE_LIMITED",
+                "message", "Muitas requisições; tente novamente em " + seconds + " s"
+        ));
+    }
+
+    static RouteClass routeClass(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (path.startsWith("/api/auth/") && HttpMethod.POST.matches(method)) {
+            return path.equals("/api/auth/refresh") || path.equals("/api/auth/logout") ? RouteClass.REFRESH : RouteClass.LOGIN;
+        }
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? RouteClass.READ : RouteClass.WRITE;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && auth.getName() != null) return "sub:" + auth.getName();
+        return address(request);
+    }
+
+    private static String address(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,32 @@
+package com.j_tech.fullstack_todo.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-route-class token buckets for {@link RateLimitFilter}. {@code capacity} is the
+ * burst a client may send at once, {@code refillPerSecond} the sustained rate.
+ * {@code refresh} is per address, {@code refreshUser} per user whose token was found.
+ *
+ * @param idleEviction buckets untouched this long are dropped (a fresh bucket is full,
+ *                     so evicting an idle one never changes a decision)
+ */
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(boolean enabled, Duration idleEviction, long maxBuckets,
+                                  Limit read, Limit write, Limit login, Limit refresh,
+                                  Limit refreshUser) {
+
+    public RateLimitProperties {
+        if (idleEviction == null) idleEviction = Duration.ofMinutes(10);
+        if (maxBuckets <= 0) maxBuckets = 1_000_000;
+        if (read == null) read = new Limit(200, 50);
+        if (write == null) write = new Limit(50, 10);
+        if (login == null) login = new Limit(5, 0.2);
+        if (refresh == null) refresh = new Limit(60, 1);
+        if (refreshUser == null) refreshUser = new Limit(10, 0.1);
+    }
+
+    public record Limit(long capacity, double refillPerSecond) {
+    }
+}
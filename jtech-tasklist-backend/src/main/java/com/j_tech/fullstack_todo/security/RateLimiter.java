@@ -0,0 +1,88 @@
+package com.j_tech.fullstack_todo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by (route class, client). Each bucket is a single {@link AtomicLong}
+ * updated by CAS using the GCRA formulation of a token bucket: it stores the
+ * "theoretical arrival time" of the next request instead of a token count, so a
+ * decision is one read and at most a few CAS attempts, with no lock and no refill
+ * timer. Buckets live in a Caffeine cache that expires them after
+ * {@code idle-eviction} without requests.
+ */
+@Component
+public class RateLimiter {
+
+    /** {@code REFRESH} is per address; {@code REFRESH_USER} per user, charged once the refresh token is found. */
+    public enum RouteClass { READ, WRITE, LOGIN, REFRESH, REFRESH_USER }
+
+    private final Map<RouteClass, Rate> rates = new EnumMap<>(RouteClass.class);
+    private final Cache<Key, AtomicLong> buckets;
+    private final LongSupplier nanoTime;
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+
+    @Autowired
+    public RateLimiter(RateLimitProperties props, MeterRegistry registry) {
+        this(props, registry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties props, MeterRegistry registry, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        rates.put(RouteClass.READ, new Rate(props.read()));
+        rates.put(RouteClass.WRITE, new Rate(props.write()));
+        rates.put(RouteClass.LOGIN, new Rate(props.login()));
+        rates.put(RouteClass.REFRESH, new Rate(props.refresh()));
+        rates.put(RouteClass.REFRESH_USER, new Rate(props.refreshUser()));
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(props.idleEviction())
+                .maximumSize(props.maxBuckets())
+                .build();
+        for (RouteClass c : RouteClass.values()) {
+            rejected.put(c, registry.counter("http.server.requests.rate-limited", "class", c.name().toLowerCase()));
+        }
+        Gauge.builder("rate.limit.buckets", buckets, Cache::estimatedSize).register(registry);
+    }
+
+    /** @return 0 if the request may proceed, otherwise nanoseconds until it would be allowed */
+    public long tryAcquire(RouteClass routeClass, String client) {
+        Rate rate = rates.get(routeClass);
+        AtomicLong tat = buckets.get(new Key(routeClass, client), k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = tat.get();
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = base + rate.intervalNanos;
+            long excess = next - now - rate.burstNanos;
+            if (excess > 0) {
+                rejected.get(routeClass).increment();
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    private record Key(RouteClass routeClass, String client) {
+    }
+
+    private static final class Rate {
+        final long intervalNanos;
+        final long burstNanos;
+
+        Rate(RateLimitProperties.Limit limit) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.refillPerSecond());
+            this.burstNanos = intervalNanos * limit.capacity();
+        }
+    }
+}
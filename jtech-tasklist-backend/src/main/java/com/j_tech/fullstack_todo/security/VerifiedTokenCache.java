@@ -0,0 +1,46 @@
+package com.j_tech.fullstack_todo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified. Each entry lives
+ * exactly until the token's {@code exp}, so an expired token is never served from here
+ * and falls through to the parser, which rejects it. Hit/miss/eviction counts are
+ * published as {@code cache.*{cache=jwt.verified}}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, Claims> cache;
+
+    public VerifiedTokenCache(@Value("${security.jwt.cache.max-size:10000}") long maxSize,
+                              MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String token, Claims claims) -> timeToLive(claims)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified");
+    }
+
+    public Claims get(String token, Function<String, Claims> verifier) {
+        return cache.get(token, verifier);
+    }
+
+    private static Duration timeToLive(Claims claims) {
+        if (claims.getExpiration() == null) return Duration.ZERO;
+        Duration ttl = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+}
@@ -0,0 +1,35 @@
+package com.j_tech.fullstack_todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/** Opaque keyset cursor for agenda pages: position (due date, task id) of the last row. */
+final class AgendaCursor {
+    private static final String PREFIX = "a1:";
+
+    record Position(LocalDate dueDate, long id) {
+    }
+
+    private AgendaCursor() {
+    }
+
+    static String encode(LocalDate dueDate, Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + dueDate + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) throw new IllegalArgumentException("Cursor inválido");
+            String[] parts = raw.substring(PREFIX.length()).split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Cursor inválido");
+            return new Position(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
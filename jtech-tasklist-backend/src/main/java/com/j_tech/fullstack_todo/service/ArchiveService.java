@@ -0,0 +1,134 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.datasource.ShardRouter;
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+import com.j_tech.fullstack_todo.event.ChangeEvent.Type;
+import com.j_tech.fullstack_todo.exception.DatabaseBusyException;
+import com.j_tech.fullstack_todo.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Moves tasks completed more than {@code app.archive.after} ago from {@code tasks} to
+ * {@code task_archive}. Each chunk of {@code app.archive.chunk-size} tasks is its own
+ * short transaction (INSERT ... SELECT, DELETE by id, one version bump per affected
+ * list), with a pause between chunks so the job never holds locks for long or floods
+ * replication. With sharding every shard is archived in turn; a shard refused while a
+ * bucket is being moved is left for the next run. The nightly run takes a
+ * {@link JobLocks} lease first, so it happens on one instance only.
+ */
+@Slf4j
+@Service
+public class ArchiveService {
+    private final TaskRepository tasks;
+    private final TodoListRepository lists;
+    private final ArchivedTaskRepository archived;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final ShardRouter router;
+    private final JobLocks jobLocks;
+    private final boolean enabled;
+    private final Duration after;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration lockAtMost;
+    private final Counter archivedCount;
+
+    public ArchiveService(TaskRepository tasks, TodoListRepository lists, ArchivedTaskRepository archived,
+                          ApplicationEventPublisher events, TransactionTemplate tx, ShardRouter router, JobLocks jobLocks,
+                          @Value("${app.archive.enabled:true}") boolean enabled,
+                          @Value("${app.archive.after:P30D}") Duration after,
+                          @Value("${app.archive.chunk-size:1000}") int chunkSize,
+                          @Value("${app.archive.pause:PT0.1S}") Duration pause,
+                          @Value("${app.archive.lock-at-most:PT2H}") Duration lockAtMost,
+                          MeterRegistry registry) {
+        this.tasks = tasks;
+        this.lists = lists;
+        this.archived = archived;
+        this.events = events;
+        this.tx = tx;
+        this.router = router;
+        this.jobLocks = jobLocks;
+        this.enabled = enabled;
+        this.after = after;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.lockAtMost = lockAtMost;
+        this.archivedCount = registry.counter("tasks.archived");
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        if (!enabled) return;
+        jobLocks.runExclusively("archive", lockAtMost, () -> {
+            int n = archiveCompletedBefore(LocalDateTime.now().minus(after));
+            if (n > 0) log.info("Archived {} completed tasks", n);
+        });
+    }
+
+    /** @return number of tasks archived */
+    public int archiveCompletedBefore(LocalDateTime cutoff) {
+        return router.onEachShard(() -> archiveShard(cutoff)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private int archiveShard(LocalDateTime cutoff) {
+        int total = 0;
+        while (true) {
+            Integer moved;
+            try {
+                moved = tx.execute(s -> archiveChunk(cutoff));
+            } catch (RuntimeException e) {
+                if (!(NestedExceptionUtils.getMostSpecificCause(e) instanceof DatabaseBusyException)) throw e;
+                log.info("Shard busy with a bucket move; archiving the rest of it on the next run");
+                return total;
+            }
+            total += moved;
+            if (moved < chunkSize) return total;
+            try {
+                Thread.sleep(pause.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = tasks.findArchivableIds(cutoff, Limit.of(chunkSize));
+        if (ids.isEmpty()) return 0;
+        Map<Long, Long> ownerByList = tasks.findOwners(ids).stream()
+                .collect(Collectors.toMap(TaskOwner::listId, TaskOwner::userId, (a, b) -> a));
+        LocalDateTime now = LocalDateTime.now();
+        archived.copyFromTasks(ids, now);
+        tasks.deleteAllByIdInBulk(ids);
+        lists.bumpVersions(ownerByList.keySet(), now);
+        ownerByList.forEach((listId, userId) -> events.publishEvent(ChangeEvent.list(Type.TASKS_ARCHIVED, userId, listId)));
+        archivedCount.increment(ids.size());
+        return ids.size();
+    }
+
+    /** Keyset page over a list's archive, same cursor format as the live task pages. */
+    @Transactional(readOnly = true)
+    public ArchivePage page(Long listId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, ListService.MAX_PAGE_SIZE));
+        Long afterId = TaskCursor.decode(cursor);
+        List<ArchivedTaskDTO> rows = archived.findPage(listId, afterId != null ? afterId : 0L, Limit.of(size + 1));
+        if (rows.size() <= size) return new ArchivePage(rows, null);
+        List<ArchivedTaskDTO> page = List.copyOf(rows.subList(0, size));
+        return new ArchivePage(page, TaskCursor.encode(page.get(size - 1).id()));
+    }
+}
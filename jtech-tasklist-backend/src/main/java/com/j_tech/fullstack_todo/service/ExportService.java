@@ -0,0 +1,162 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.model.TodoList;
+import com.j_tech.fullstack_todo.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Account dump and restore as NDJSON ({@link ExportRecord} per line). Export reads
+ * keyset pages and import parses one record at a time, so memory is bounded by the
+ * page or batch size, not by the account.
+ */
+@Slf4j
+@Service
+public class ExportService {
+    private final TodoListRepository lists;
+    private final TaskRepository tasks;
+    private final ListService listService;
+    private final TaskService taskService;
+    private final TaskWriteBuffer buffer;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnly;
+    private final ObjectMapper mapper;
+
+    public static final int IMPORT_BATCH_SIZE = 500;
+    public static final int EXPORT_PAGE_SIZE = 500;
+    private static final int FLUSH_EVERY = 1000;
+
+    public ExportService(TodoListRepository lists, TaskRepository tasks, ListService listService,
+                         TaskService taskService, TaskWriteBuffer buffer, TransactionTemplate tx, ObjectMapper mapper) {
+        this.lists = lists;
+        this.tasks = tasks;
+        this.listService = listService;
+        this.taskService = taskService;
+        this.buffer = buffer;
+        this.tx = tx;
+        this.readOnly = new TransactionTemplate(tx.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        this.mapper = mapper;
+    }
+
+    /**
+     * Writes the account one {@link #EXPORT_PAGE_SIZE} page at a time, each read in its own
+     * short read-only transaction, so a client downloading slowly holds no connection
+     * between pages. The export is therefore not one snapshot: a task moved or added
+     * while it runs may be missed, and one whose list is created meanwhile is skipped on
+     * import as having no list.
+     */
+    public void export(Long userId, OutputStream out) throws IOException {
+        ObjectWriter writer = mapper.writerFor(ExportRecord.class);
+        int n = 0;
+        long afterId = 0;
+        List<ListRecord> listPage;
+        do {
+            long after = afterId;
+            listPage = readOnly.execute(s -> lists.findExportPage(userId, after, Limit.of(EXPORT_PAGE_SIZE)));
+            for (ListRecord l : listPage) writeLine(writer, l, out, ++n);
+            if (!listPage.isEmpty()) afterId = listPage.get(listPage.size() - 1).id();
+        } while (listPage.size() == EXPORT_PAGE_SIZE);
+
+        TaskExportRow last = new TaskExportRow(0L, 0L, null, null, false, null, null, "");
+        List<TaskExportRow> taskPage;
+        do {
+            TaskExportRow after = last;
+            taskPage = readOnly.execute(s -> tasks.findExportPage(userId, after.listId(), after.rank(), after.id(),
+                    Limit.of(EXPORT_PAGE_SIZE)));
+            for (TaskExportRow t : taskPage) writeLine(writer, buffer.overlay(t.toRecord()), out, ++n);
+            if (!taskPage.isEmpty()) last = taskPage.get(taskPage.size() - 1);
+        } while (taskPage.size() == EXPORT_PAGE_SIZE);
+        out.flush();
+    }
+
+    private static void writeLine(ObjectWriter writer, ExportRecord r, OutputStream out, int n) throws IOException {
+        out.write(writer.writeValueAsBytes(r));
+        out.write('\n');
+        if (n % FLUSH_EVERY == 0) out.flush();
+    }
+
+    /**
+     * Restores an export into {@code userId}'s account, {@link #IMPORT_BATCH_SIZE} records
+     * per transaction. Lists are matched by name (existing ones are reused) and tasks go
+     * through {@link TaskService#addAll}, so titles already present in a list are
+     * reported as skipped instead of failing the import. Reports progress after every
+     * committed batch; a malformed line stops the import with an {@code error} report.
+     */
+    public void importFrom(Long userId, InputStream in, Consumer<ImportProgress> progress) {
+        Import state = new Import(userId, existingLists(userId));
+        try (MappingIterator<ExportRecord> it = mapper.readerFor(ExportRecord.class).readValues(in)) {
+            List<ExportRecord> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            while (it.hasNextValue()) {
+                batch.add(it.nextValue());
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    apply(state, batch);
+                    progress.accept(ImportProgress.progress(state.lists, state.tasks, state.skipped));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) apply(state, batch);
+            progress.accept(ImportProgress.done(state.lists, state.tasks, state.skipped));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import into user {} stopped after {} lists and {} tasks", userId, state.lists, state.tasks, e);
+            progress.accept(ImportProgress.error(state.lists, state.tasks, state.skipped, "Importação interrompida: " + e.getMessage()));
+        }
+    }
+
+    private Map<String, Long> existingLists(Long userId) {
+        return tx.execute(s -> lists.findAllByUserId(userId).stream()
+                .collect(Collectors.toMap(TodoList::getName, TodoList::getId, (a, b) -> a, HashMap::new)));
+    }
+
+    private void apply(Import state, List<ExportRecord> batch) {
+        tx.executeWithoutResult(s -> {
+            List<TaskCreateItem> items = new ArrayList<>();
+            int skipped = 0;
+            for (ExportRecord r : batch) {
+                if (r instanceof ListRecord l) {
+                    state.listIds.put(l.id(), state.byName.computeIfAbsent(l.name().trim(), name -> {
+                        state.lists++;
+                        return listService.create(state.userId, name).id();
+                    }));
+                } else if (r instanceof TaskRecord t) {
+                    Long listId = state.listIds.get(t.listId());
+                    if (listId == null) skipped++;
+                    else items.add(new TaskCreateItem(listId, t.title(), t.description(), t.done(), t.dueDate()));
+                }
+            }
+            for (int from = 0; from < items.size(); from += TaskService.MAX_BATCH_SIZE) {
+                BatchResult result = taskService.addAll(items.subList(from, Math.min(items.size(), from + TaskService.MAX_BATCH_SIZE)));
+                state.tasks += result.succeeded();
+                skipped += result.failed();
+            }
+            state.skipped += skipped;
+        });
+    }
+
+    private static final class Import {
+        final Long userId;
+        final Map<String, Long> byName;
+        final Map<Long, Long> listIds = new HashMap<>();
+        int lists;
+        int tasks;
+        int skipped;
+
+        Import(Long userId, Map<String, Long> byName) {
+            this.userId = userId;
+            this.byName = byName;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.j_tech.fullstack_todo.exception.ConflictException;
+import com.j_tech.fullstack_todo.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the result of create requests sent with an {@code Idempotency-Key}. Entries
+ * are keyed by (principal, operation, key) and hold the request fingerprint plus a future
+ * of the response: the first request completes it, a concurrent duplicate waits on it
+ * instead of reaching the database, and a later retry gets the stored body. Failed
+ * executions are dropped so the client can retry them for real.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<Key, Entry> entries;
+    private final Duration waitTimeout;
+    private final MeterRegistry registry;
+
+    public IdempotencyService(@Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${app.idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${app.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                              MeterRegistry registry) {
+        this.entries = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxEntries).build();
+        this.waitTimeout = waitTimeout;
+        this.registry = registry;
+    }
+
+    public record Result<T>(T body, boolean replayed) {
+    }
+
+    /**
+     * Runs {@code action} once per key. {@code fingerprint} identifies the request payload;
+     * reusing a key with a different payload is rejected. A null key just runs the action.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String principal, String operation, String idempotencyKey,
+                                 Object fingerprint, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return new Result<>(action.get(), false);
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) throw new IllegalArgumentException("Idempotency-Key muito longa");
+
+        Key key = new Key(principal, operation, idempotencyKey);
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, mine);
+        if (existing == null) {
+            try {
+                T body = action.get();
+                mine.response.complete(body);
+                count("executed");
+                return new Result<>(body, false);
+            } catch (RuntimeException | Error e) {
+                entries.asMap().remove(key, mine);
+                mine.response.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (!existing.fingerprint.equals(fingerprint)) throw new IdempotencyKeyReusedException();
+        count(existing.response.isDone() ? "replayed" : "waited");
+        try {
+            return new Result<>((T) existing.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS), true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("Requisição com a mesma Idempotency-Key ainda em processamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Requisição interrompida");
+        }
+    }
+
+    private void count(String outcome) {
+        registry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private record Key(String principal, String operation, String idempotencyKey) {
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<Object> response) {
+    }
+}
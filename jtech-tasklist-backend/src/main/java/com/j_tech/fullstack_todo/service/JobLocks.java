@@ -0,0 +1,65 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.repository.JobLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Runs a scheduled job on one instance at a time. Every instance fires the same cron;
+ * the one that moves the job's lease in {@code job_locks} forward runs it, the others
+ * skip that run. The lease is held for at least {@code app.jobs.lock-at-least} so an
+ * instance whose clock lags a little does not start the same run again right after, and
+ * at most {@code atMost}, so an instance that dies mid-run blocks the job no longer than
+ * that. Clocks of the instances are assumed to agree to well within the minimum.
+ */
+@Slf4j
+@Component
+public class JobLocks {
+    private final JobLockRepository locks;
+    private final TransactionTemplate tx;
+    private final Duration atLeast;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    public JobLocks(JobLockRepository locks, TransactionTemplate tx,
+                    @Value("${app.jobs.lock-at-least:PT1M}") Duration atLeast) {
+        this.locks = locks;
+        this.tx = tx;
+        this.atLeast = atLeast;
+    }
+
+    /** @return whether this instance ran {@code job} */
+    public boolean runExclusively(String name, Duration atMost, Runnable job) {
+        LocalDateTime start = LocalDateTime.now();
+        if (!acquire(name, start, start.plus(atMost))) {
+            log.debug("Job {} is running on another instance; skipped", name);
+            return false;
+        }
+        try {
+            job.run();
+        } finally {
+            LocalDateTime end = LocalDateTime.now();
+            LocalDateTime until = start.plus(atLeast).isAfter(end) ? start.plus(atLeast) : end;
+            tx.executeWithoutResult(s -> locks.release(name, owner, until));
+        }
+        return true;
+    }
+
+    private boolean acquire(String name, LocalDateTime now, LocalDateTime until) {
+        Integer claimed = tx.execute(s -> locks.claim(name, owner, now, until));
+        if (claimed != null && claimed > 0) return true;
+        if (locks.existsById(name)) return false;
+        try {
+            tx.executeWithoutResult(s -> locks.create(name, owner, until));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
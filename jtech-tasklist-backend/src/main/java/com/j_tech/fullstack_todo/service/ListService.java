@@ -1,67 +1,218 @@
 package com.j_tech.fullstack_todo.service;
 
+import com.j_tech.fullstack_todo.cache.ListReadCache;
+import com.j_tech.fullstack_todo.cache.ListSummaryKey;
+import com.j_tech.fullstack_todo.cache.TaskPageKey;
 import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+import com.j_tech.fullstack_todo.event.ChangeEvent.Type;
+import com.j_tech.fullstack_todo.exception.ConflictException;
+import com.j_tech.fullstack_todo.exception.PreconditionFailedException;
 import com.j_tech.fullstack_todo.model.*;
 import com.j_tech.fullstack_todo.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class ListService {
     private final TodoListRepository lists;
     private final UserRepository users;
     private final TaskRepository tasks;
+    private final ArchivedTaskRepository archived;
+    private final ListReadCache cache;
+    private final ApplicationEventPublisher events;
+    private final TaskWriteBuffer buffer;
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
 
-    public List<TaskDTO> tasks(Long listId) {
-        return tasks.findAllByListId(listId)
-                .stream()
-                .map(t -> new TaskDTO(
-                        t.getId(),
-                        t.getTitle(),
-                        t.getDescription(),
-                        t.isDone(),
-                        t.getDueDate()))
+    @Transactional(readOnly = true)
+    public TaskPage tasks(Long listId, TaskFilter filter, String cursor, int limit) {
+        return tasks(listId, version(listId), filter, cursor, limit);
+    }
+
+    /**
+     * @param version the list version the caller read (for its ETag). It keys the cached
+     *                page, so a cached body is only served while the list is still at that
+     *                version, and a page is never older than the version it is cached under.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage tasks(Long listId, long version, TaskFilter filter, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TaskPage page = cache.taskPage(new TaskPageKey(listId, version, filter, cursor, size),
+                () -> loadPage(listId, filter, cursor, size));
+        return buffer.overlay(page);
+    }
+
+    private TaskPage loadPage(Long listId, TaskFilter filter, String cursor, int size) {
+        TaskCursor.Position after = TaskCursor.decodePosition(cursor);
+        // Fetch one extra row to learn whether a next page exists without a COUNT(*).
+        List<TaskDTO> rows = after == null
+                ? tasks.findPage(listId, filter, null, null, size + 1)
+                : tasks.findPage(listId, filter, after.rank(), after.id(), size + 1);
+        if (rows.size() <= size) return new TaskPage(rows, null);
+        List<TaskDTO> page = List.copyOf(rows.subList(0, size));
+        TaskDTO last = page.get(size - 1);
+        return new TaskPage(page, TaskCursor.encode(last.rank(), last.id()));
+    }
+
+    public static final int MAX_AGENDA_DAYS = 366;
+
+    /**
+     * Open tasks due in [from, to] across all of the user's lists, grouped by day. The
+     * page is one keyset query; the per-day totals are one aggregate restricted to the
+     * days the page covers.
+     */
+    @Transactional(readOnly = true)
+    public AgendaPage agenda(Long userId, LocalDate from, LocalDate to, String cursor, int limit) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("Data inicial após a final");
+        if (from.plusDays(MAX_AGENDA_DAYS).isBefore(to))
+            throw new IllegalArgumentException("Intervalo máximo de " + MAX_AGENDA_DAYS + " dias");
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        AgendaCursor.Position after = AgendaCursor.decode(cursor);
+        List<AgendaItem> rows = tasks.findAgenda(userId, from, to,
+                after != null ? after.dueDate() : null, after != null ? after.id() : null, size + 1)
+                .stream().map(buffer::overlay).toList();
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            AgendaItem last = rows.get(size - 1);
+            next = AgendaCursor.encode(last.dueDate(), last.id());
+        }
+        if (rows.isEmpty()) return new AgendaPage(List.of(), null);
+
+        Map<LocalDate, List<AgendaItem>> byDay = rows.stream()
+                .collect(Collectors.groupingBy(AgendaItem::dueDate, LinkedHashMap::new, Collectors.toList()));
+        Map<LocalDate, Long> counts = tasks.countAgendaByDay(userId, rows.get(0).dueDate(), rows.get(rows.size() - 1).dueDate())
+                .stream().collect(Collectors.toMap(DayCount::date, DayCount::count));
+        List<AgendaDay> days = byDay.entrySet().stream()
+                .map(e -> new AgendaDay(e.getKey(), counts.getOrDefault(e.getKey(), (long) e.getValue().size()), e.getValue()))
                 .toList();
+        return new AgendaPage(days, next);
     }
 
+    /** Each summary carries its list's version; the collection ETag is built from them. */
+    @Transactional(readOnly = true)
     public List<ListDTO> findAll(Long userId) {
-        return lists.findAllByUserId(userId).stream().map(l ->
-                new ListDTO(l.getId(), l.getName(), l.getTasks() != null ? l.getTasks().size() : 0, l.getUpdatedAt())
-        ).toList();
+        return findAll(userId, versions(userId));
+    }
+
+    private List<ListDTO> findAll(Long userId, List<ListVersion> versions) {
+        return cache.summaries(new ListSummaryKey(userId, versions), () -> lists.findSummariesByUserId(userId));
+    }
+
+    public static final int DEFAULT_PREVIEW_SIZE = 20;
+    public static final int MAX_PREVIEW_SIZE = 100;
+
+    /**
+     * The user's lists, each with its first {@code limit} open tasks, handed to
+     * {@code sink} one list at a time. Two queries however many lists: the (cached)
+     * summaries and one top-N-per-list scroll merged with them by list id, so only the
+     * current list's tasks are held in memory.
+     *
+     * @param versions the user's list versions as the caller read them (for its ETag);
+     *                 they key the cached summaries
+     */
+    @Transactional(readOnly = true)
+    public void withOpenTasks(Long userId, List<ListVersion> versions, int limit, Consumer<ListWithTasks> sink) {
+        int size = Math.max(1, Math.min(limit, MAX_PREVIEW_SIZE));
+        List<ListDTO> summaries = findAll(userId, versions);
+        try (Stream<ListTaskRow> rows = tasks.streamOpenTopN(userId, size)) {
+            Iterator<ListTaskRow> it = rows.iterator();
+            ListTaskRow next = it.hasNext() ? it.next() : null;
+            for (ListDTO l : summaries) {
+                List<TaskDTO> open = new ArrayList<>();
+                // Lists created after the summaries were read have rows but no summary; skip them.
+                while (next != null && next.listId() < l.id()) next = it.hasNext() ? it.next() : null;
+                while (next != null && next.listId().equals(l.id())) {
+                    open.add(buffer.overlay(next.toTask()));
+                    next = it.hasNext() ? it.next() : null;
+                }
+                sink.accept(ListWithTasks.of(l, open));
+            }
+        }
     }
 
     @Transactional
     public ListDTO create(Long userId, String name) {
         name = name.trim();
         if (name.isBlank()) throw new IllegalArgumentException("Nome da lista é obrigatório");
-        if (lists.existsByUserIdAndName(userId, name)) throw new IllegalStateException("Lista já existe");
+        if (lists.existsByUserIdAndName(userId, name)) throw new ConflictException("Lista já existe");
         User user = users.findById(userId).orElseThrow();
         TodoList l = TodoList.builder().user(user).name(name).build();
         l = lists.save(l);
-        return new ListDTO(l.getId(), l.getName(), 0, l.getUpdatedAt());
+        events.publishEvent(ChangeEvent.list(Type.LIST_CREATED, userId, l.getId()));
+        return new ListDTO(l.getId(), l.getName(), 0, 0, 0, l.getVersion(), l.getUpdatedAt());
+    }
+
+    @Transactional(readOnly = true)
+    public long version(Long listId) {
+        return lists.findVersionById(listId).orElseThrow();
+    }
+
+    /** See {@link TaskWriteBuffer#pendingSequence}; part of the task page ETag. */
+    public long pendingWrites(Long listId) {
+        return buffer.pendingSequence(listId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ListVersion> versions(Long userId) {
+        return lists.findVersionsByUserId(userId);
     }
 
     @Transactional
     public ListDTO rename(Long id, String newName) {
-        TodoList l = lists.findById(id).orElseThrow();
+        return rename(id, newName, null);
+    }
+
+    /**
+     * @param expectedVersion version from the client's If-Match, or null to skip the
+     *                        check; a concurrent change between here and flush is still
+     *                        caught by {@code @Version}
+     */
+    @Transactional
+    public ListDTO rename(Long id, String newName, Long expectedVersion) {
+        // Not the cached copy: its version may predate another instance's write, which would
+        // fail the If-Match check (or the @Version flush) of a client that is up to date.
+        TodoList l = lists.findUncached(id).orElseThrow();
+        if (expectedVersion != null && expectedVersion != l.getVersion())
+            throw new PreconditionFailedException("Lista foi alterada por outra requisição");
         newName = newName.trim();
         if (newName.isBlank()) throw new IllegalArgumentException("Nome da lista é obrigatório");
         if (lists.existsByUserIdAndName(l.getUser().getId(), newName))
-            throw new IllegalStateException("Lista já existe");
+            throw new ConflictException("Lista já existe");
         l.setName(newName);
         l.setUpdatedAt(LocalDateTime.now());
-        return new ListDTO(l.getId(), l.getName(), l.getTasks() != null ? l.getTasks().size() : 0, l.getUpdatedAt());
+        events.publishEvent(ChangeEvent.list(Type.LIST_RENAMED, l.getUser().getId(), id));
+        return lists.findSummaryById(id).orElseThrow();
     }
 
+    /**
+     * Set-based: one DELETE for the tasks, one for the archived tasks and one for the list,
+     * instead of hydrating every task through the {@code orphanRemoval} cascade.
+     *
+     * @param force delete a list that still has tasks; without it that is a conflict
+     */
     @Transactional
     public void delete(Long id, boolean force) {
-        TodoList l = lists.findById(id).orElseThrow();
-        if (!force && l.getTasks() != null && !l.getTasks().isEmpty()) ;
+        Long userId = lists.findUserIdById(id).orElseThrow();
+        if (!force && tasks.existsByListId(id))
+            throw new ConflictException("Lista possui tarefas; use force=true para excluir");
+        tasks.deleteAllByListIdInBulk(id);
+        archived.deleteAllByListIdInBulk(id);
+        // The cached owner can outlive a delete made through another instance.
+        if (lists.deleteByIdInBulk(id) == 0) throw new NoSuchElementException("Lista não encontrada");
+        events.publishEvent(ChangeEvent.list(Type.LIST_DELETED, userId, id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.TaskDTO;
+import com.j_tech.fullstack_todo.dto.TaskUpdateItem;
+import com.j_tech.fullstack_todo.model.Task;
+
+/**
+ * Coalesced, not yet written {@code done}/{@code description} change to one task. Null
+ * fields are untouched; {@code since} is when the first change in the window arrived.
+ */
+record PendingWrite(Long taskId, Long listId, String description, Boolean done, long since) {
+
+    /** This write followed by {@code newer}: newer non-null fields win. */
+    PendingWrite then(PendingWrite newer) {
+        return new PendingWrite(taskId, listId,
+                newer.description != null ? newer.description : description,
+                newer.done != null ? newer.done : done,
+                since);
+    }
+
+    TaskDTO applyTo(TaskDTO t) {
+        return new TaskDTO(t.id(), t.title(),
+                description != null ? description : t.description(),
+                done != null ? done : t.done(),
+                t.dueDate(), t.rank());
+    }
+
+    void applyTo(Task t) {
+        if (description != null) t.setDescription(description);
+        if (done != null) t.setDone(done);
+    }
+
+    TaskUpdateItem toItem() {
+        return new TaskUpdateItem(taskId, null, description, done);
+    }
+}
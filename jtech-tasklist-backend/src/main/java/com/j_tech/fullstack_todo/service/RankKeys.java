@@ -0,0 +1,100 @@
+package com.j_tech.fullstack_todo.service;
+
+import java.util.*;
+
+/**
+ * Fractional rank keys: strings of base-36 digits ({@code [0-9a-z]}) compared
+ * lexicographically, so a key can always be made between two others and reordering a
+ * task rewrites only that task's key. Generated keys never end in {@code '0'}, which is
+ * what guarantees room below every key.
+ * <p>
+ * Appends increment the last digit of a {@value #MIN_WIDTH}-digit key and keep their
+ * length; repeated inserts into the same gap grow a key by about one digit per five.
+ * {@link TaskRankRebalancer} respreads a list once its keys pass
+ * {@value #REBALANCE_LENGTH} digits.
+ */
+final class RankKeys {
+    static final int MIN_WIDTH = 4;
+    static final int REBALANCE_LENGTH = 12;
+    /** Keys longer than this are not written; the list is rebalanced in place first. */
+    static final int MAX_LENGTH = 48;
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final String FIRST = String.valueOf(DIGITS.charAt(BASE / 2));
+
+    private RankKeys() {
+    }
+
+    /**
+     * A key strictly between {@code lo} and {@code hi}; either may be null for an open
+     * end. Null when there is no room, i.e. {@code lo >= hi} (two tasks share a key).
+     */
+    static String between(String lo, String hi) {
+        if (hi == null) return after(lo);
+        if (lo != null && lo.compareTo(hi) >= 0) return null;
+        return midpoint(lo != null ? lo : "", hi);
+    }
+
+    static String after(String lo) {
+        if (lo == null || lo.isEmpty()) return FIRST;
+        char[] key = Arrays.copyOf(lo.toCharArray(), Math.max(lo.length(), MIN_WIDTH));
+        Arrays.fill(key, lo.length(), key.length, '0');
+        for (int i = key.length - 1; i >= 0; i--) {
+            int d = digit(key[i]);
+            if (d < BASE - 1) {
+                key[i] = DIGITS.charAt(d + 1);
+                return new String(key, 0, i + 1);
+            }
+        }
+        return lo + FIRST;
+    }
+
+    /** {@code n} evenly spaced keys of equal width, leaving a gap after the last one. */
+    static List<String> spread(int n) {
+        int width = MIN_WIDTH;
+        while (Math.pow(BASE, width - 2) < n + 1) width++;
+        long space = (long) Math.pow(BASE, width);
+        long step = space / (n + 1);
+        List<String> out = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) out.add(encode(i * step, width));
+        return out;
+    }
+
+    private static String midpoint(String lo, String hi) {
+        StringBuilder out = new StringBuilder();
+        boolean bounded = true;
+        for (int i = 0; ; i++) {
+            if (bounded && i == hi.length()) return null;
+            int a = i < lo.length() ? digit(lo.charAt(i)) : 0;
+            int b = bounded ? digit(hi.charAt(i)) : BASE;
+            if (a == b) {
+                out.append(DIGITS.charAt(a));
+            } else if (b - a > 1) {
+                return out.append(DIGITS.charAt((a + b) / 2)).toString();
+            } else {
+                // Adjacent digits: keep lo's and look for room in the digits after it,
+                // where hi no longer bounds the key.
+                out.append(DIGITS.charAt(a));
+                bounded = false;
+            }
+        }
+    }
+
+    private static String encode(long value, int width) {
+        char[] key = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            key[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int end = width;
+        while (key[end - 1] == '0') end--;
+        return new String(key, 0, end);
+    }
+
+    private static int digit(char c) {
+        int d = DIGITS.indexOf(c);
+        if (d < 0) throw new IllegalArgumentException("Chave de ordenação inválida");
+        return d;
+    }
+}
@@ -0,0 +1,176 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.datasource.ShardIds;
+import com.j_tech.fullstack_todo.datasource.ShardRouter;
+import com.j_tech.fullstack_todo.exception.DatabaseBusyException;
+import com.j_tech.fullstack_todo.exception.InvalidRefreshTokenException;
+import com.j_tech.fullstack_todo.exception.RateLimitedException;
+import com.j_tech.fullstack_todo.model.RefreshToken;
+import com.j_tech.fullstack_todo.repository.RefreshTokenRepository;
+import com.j_tech.fullstack_todo.security.RateLimitProperties;
+import com.j_tech.fullstack_todo.security.RateLimiter;
+import com.j_tech.fullstack_todo.security.RateLimiter.RouteClass;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.*;
+import java.util.Base64;
+
+/**
+ * Opaque, rotating refresh tokens. The client gets 32 random bytes (base64url); the
+ * store keeps only their SHA-256, so a leaked table cannot be replayed. Every refresh
+ * consumes the presented token and returns its successor in the same family; replaying
+ * a consumed token revokes the family (the legitimate holder has to log in again, and
+ * so does whoever copied it).
+ * <p>
+ * Tokens start with the owner's id ({@code "<userId>."}) so refresh and logout, which
+ * carry no access token, can be routed to the owner's shard; see {@link #bucketOf}. The
+ * prefix is not trusted for anything else: the per-user refresh budget is charged to
+ * the owner of the stored token, once its hash has been found.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepository tokens;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    private final MeterRegistry registry;
+    private final TransactionTemplate tx;
+    private final JobLocks jobLocks;
+    private final ShardRouter router;
+    private final RateLimiter limiter;
+    private final boolean rateLimited;
+
+    public RefreshTokenService(RefreshTokenRepository tokens,
+                               @Value("${security.jwt.refresh-ttl:P30D}") Duration ttl,
+                               MeterRegistry registry, TransactionTemplate tx, ShardRouter router, JobLocks jobLocks,
+                               RateLimiter limiter, RateLimitProperties rateLimits) {
+        this.tokens = tokens;
+        this.ttl = ttl;
+        this.registry = registry;
+        this.tx = tx;
+        this.router = router;
+        this.jobLocks = jobLocks;
+        this.limiter = limiter;
+        this.rateLimited = rateLimits.enabled();
+    }
+
+    public record Issued(Long userId, String token) {
+    }
+
+    /** Starts a new family (one per login). */
+    @Transactional
+    public String issue(Long userId) {
+        String token = newToken(userId);
+        tokens.save(RefreshToken.builder().tokenHash(hash(token)).userId(userId)
+                .familyId(random.nextLong() & Long.MAX_VALUE).expiresAt(LocalDateTime.now().plus(ttl)).build());
+        return token;
+    }
+
+    /** Consumes {@code token} and returns its successor; the family revocation on reuse is committed before the 401. */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Issued rotate(String token) {
+        RefreshToken current = find(token);
+        charge(current);
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getUsedAt() != null) {
+            int revoked = tokens.deleteFamily(current.getFamilyId());
+            log.warn("Refresh token reused for user {}; revoked {} tokens of family {}",
+                    current.getUserId(), revoked, current.getFamilyId());
+            count("reused");
+            throw new InvalidRefreshTokenException();
+        }
+        if (current.getExpiresAt().isBefore(now) || tokens.markUsed(current.getId(), now) == 0) {
+            count("rejected");
+            throw new InvalidRefreshTokenException();
+        }
+        String next = newToken(current.getUserId());
+        tokens.save(RefreshToken.builder().tokenHash(hash(next)).userId(current.getUserId())
+                .familyId(current.getFamilyId()).expiresAt(now.plus(ttl)).build());
+        count("rotated");
+        return new Issued(current.getUserId(), next);
+    }
+
+    /** Logout: revokes the whole family of {@code token}. Unknown tokens are ignored. */
+    @Transactional
+    public void revoke(String token) {
+        tokens.findByTokenHash(hash(token)).ifPresent(t -> {
+            charge(t);
+            tokens.deleteFamily(t.getFamilyId());
+        });
+    }
+
+    @Scheduled(cron = "${security.jwt.refresh-cleanup-cron:0 15 4 * * *}")
+    public void deleteExpired() {
+        jobLocks.runExclusively("refresh-token-cleanup", Duration.ofMinutes(30), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            int n = router.onEachShard(() -> deleteExpiredOnShard(now)).stream().mapToInt(Integer::intValue).sum();
+            if (n > 0) log.info("Deleted {} expired refresh tokens", n);
+        });
+    }
+
+    private int deleteExpiredOnShard(LocalDateTime now) {
+        try {
+            return tx.execute(s -> tokens.deleteExpired(now));
+        } catch (RuntimeException e) {
+            if (!(NestedExceptionUtils.getMostSpecificCause(e) instanceof DatabaseBusyException)) throw e;
+            log.info("Shard busy with a bucket move; deleting its expired refresh tokens on the next run");
+            return 0;
+        }
+    }
+
+    /** The bucket of the user a token names, or null for a malformed token. */
+    public static Integer bucketOf(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot <= 0) return null;
+        try {
+            long userId = Long.parseLong(token, 0, dot, 10);
+            return userId >= 0 ? ShardIds.bucketOf(userId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private RefreshToken find(String token) {
+        if (token == null || token.isBlank()) throw new InvalidRefreshTokenException();
+        return tokens.findByTokenHash(hash(token)).orElseThrow(() -> {
+            count("rejected");
+            return new InvalidRefreshTokenException();
+        });
+    }
+
+    /** The per-user budget, spent only by tokens that exist; the filter already charged the address. */
+    private void charge(RefreshToken token) {
+        if (!rateLimited) return;
+        long waitNanos = limiter.tryAcquire(RouteClass.REFRESH_USER, "user:" + token.getUserId());
+        if (waitNanos > 0) throw new RateLimitedException(Duration.ofNanos(waitNanos));
+    }
+
+    private String newToken(Long userId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return userId + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String outcome) {
+        registry.counter("auth.refresh", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,56 @@
+package com.j_tech.fullstack_todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for task pages. Clients must treat it as a token; the encoded
+ * form is versioned so the position format can change without breaking old links.
+ * <p>
+ * {@code t2} carries (rank, id) for the manually ordered list pages; {@code t1} is
+ * the id-only position of archive pages. Each page type rejects the other's cursor.
+ */
+final class TaskCursor {
+    private static final String ID_PREFIX = "t1:";
+    private static final String RANK_PREFIX = "t2:";
+
+    record Position(String rank, long id) {
+    }
+
+    private TaskCursor() {
+    }
+
+    static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((ID_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String encode(String rank, Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((RANK_PREFIX + rank + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(ID_PREFIX)) throw new IllegalArgumentException("Cursor inválido");
+            return Long.parseLong(raw.substring(ID_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    static Position decodePosition(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(RANK_PREFIX)) throw new IllegalArgumentException("Cursor inválido");
+            String[] parts = raw.substring(RANK_PREFIX.length()).split(":");
+            if (parts.length != 2 || parts[0].isEmpty()) throw new IllegalArgumentException("Cursor inválido");
+            return new Position(parts[0], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.datasource.ShardRouter;
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+import com.j_tech.fullstack_todo.event.ChangeEvent.Type;
+import com.j_tech.fullstack_todo.model.Task;
+import com.j_tech.fullstack_todo.repository.TaskRepository;
+import com.j_tech.fullstack_todo.repository.TodoListRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewrites the rank keys of a list evenly spaced, in their current order, once a write
+ * has produced a key longer than {@link RankKeys#REBALANCE_LENGTH}. Writers only queue
+ * the list; every {@code app.rank.rebalance-interval} each queued list is respread in a
+ * transaction of its own (one version bump, JDBC-batched UPDATEs). The queue is in
+ * memory: a list queued just before a restart waits for its next long key, and a write
+ * that would exceed {@link RankKeys#MAX_LENGTH} rebalances in place instead.
+ */
+@Slf4j
+@Component
+public class TaskRankRebalancer {
+    private final TaskRepository tasks;
+    private final TodoListRepository lists;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final ShardRouter router;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final Counter rebalanced;
+
+    public TaskRankRebalancer(TaskRepository tasks, TodoListRepository lists, ApplicationEventPublisher events,
+                              TransactionTemplate tx, ShardRouter router, MeterRegistry registry) {
+        this.tasks = tasks;
+        this.lists = lists;
+        this.events = events;
+        this.tx = tx;
+        this.router = router;
+        this.rebalanced = registry.counter("tasks.rank.rebalanced");
+        registry.gauge("tasks.rank.rebalance.queued", queued, Set::size);
+    }
+
+    public void request(Long listId) {
+        queued.add(listId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rank.rebalance-interval:PT1M}")
+    public void rebalanceQueued() {
+        for (Iterator<Long> it = queued.iterator(); it.hasNext(); ) {
+            Long listId = it.next();
+            it.remove();
+            try {
+                router.onBucketOf(listId, () -> tx.execute(s -> {
+                    rebalance(listId);
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                log.warn("Rebalancing ranks of list {} failed; it is retried on its next long key", listId, e);
+            }
+        }
+    }
+
+    /**
+     * Joins the caller's transaction. The version bump comes first: it locks the list row,
+     * so writers that pick keys after their own bump never mix old and new keys.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebalance(Long listId) {
+        if (lists.bumpVersions(Set.of(listId), LocalDateTime.now()) == 0) return;
+        List<Task> all = tasks.findAllByListIdInRankOrder(listId);
+        if (all.isEmpty()) return;
+        List<String> keys = RankKeys.spread(all.size());
+        for (int i = 0; i < all.size(); i++) all.get(i).setRank(keys.get(i));
+        Long userId = all.get(0).getList().getUser().getId();
+        events.publishEvent(ChangeEvent.list(Type.TASKS_REORDERED, userId, listId));
+        rebalanced.increment();
+    }
+}
@@ -1,47 +1,330 @@
 package com.j_tech.fullstack_todo.service;
 
-import com.j_tech.fullstack_todo.dto.TaskDTO;
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.dto.BatchItemResult.Status;
+import com.j_tech.fullstack_todo.event.ChangeEvent;
+import com.j_tech.fullstack_todo.event.ChangeEvent.Type;
+import com.j_tech.fullstack_todo.exception.ConflictException;
+import com.j_tech.fullstack_todo.exception.PreconditionFailedException;
 import com.j_tech.fullstack_todo.model.*;
 import com.j_tech.fullstack_todo.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.*;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("app.service")
 @RequiredArgsConstructor
 public class TaskService {
     private final TaskRepository tasks;
     private final TodoListRepository lists;
+    private final ApplicationEventPublisher events;
+    private final TaskWriteBuffer buffer;
+    private final TaskRankRebalancer rebalancer;
+    private final TransactionTemplate tx;
+
+    public static final int MAX_BATCH_SIZE = 1000;
 
     @Transactional
     public TaskDTO add(Long listId, String title, String description) {
         title = title.trim();
         if (title.isBlank()) throw new IllegalArgumentException("Título é obrigatório");
         if (tasks.existsByListIdAndTitle(listId, title))
-            throw new IllegalStateException("Tarefa duplicada nesta lista");
-        TodoList l = lists.findById(listId).orElseThrow();
-        Task t = tasks.save(Task.builder().list(l).title(title).description(description).build());
-        return new TaskDTO(t.getId(), t.getTitle(), t.getDescription(), t.isDone(), t.getDueDate());
+            throw new ConflictException("Tarefa duplicada nesta lista");
+        // The owner comes from the query cache and the list is only a reference for the FK:
+        // the TodoList entry itself is evicted by every version bump, so it rarely hits. The
+        // cached owner can outlive a delete made through another instance; the bump cannot.
+        Long userId = lists.findUserIdById(listId).orElseThrow();
+        if (lists.bumpVersions(Set.of(listId), LocalDateTime.now()) == 0)
+            throw new NoSuchElementException("Lista não encontrada");
+        Task t = tasks.save(Task.builder().list(lists.getReferenceById(listId)).title(title).description(description)
+                .rank(nextRank(listId, lastRank(listId))).build());
+        events.publishEvent(ChangeEvent.task(Type.TASK_ADDED, userId, listId, t.getId()));
+        return new TaskDTO(t.getId(), t.getTitle(), t.getDescription(), t.isDone(), t.getDueDate(), t.getRank());
     }
 
-    @Transactional
     public TaskDTO update(Long id, String title, String description, Boolean done) {
+        return update(id, title, description, done, null).body();
+    }
+
+    /**
+     * Plain {@code done}/{@code description} changes go to the {@link TaskWriteBuffer}
+     * when write-behind is enabled. That path only reads the task, in the repository's
+     * read-only transaction, and answers without a version: the list's version moves
+     * when the change is flushed, so none the client holds would pass a later If-Match.
+     * Other updates take the task's buffered change before reading it, in one read-write
+     * transaction.
+     *
+     * @param expectedVersion list version from the client's If-Match, or null; the check
+     *                        and the bump are one conditional UPDATE, so concurrent
+     *                        If-Match writers on a list serialize on its row. The check
+     *                        is list-wide: it is the version clients get from task
+     *                        pages, while {@code Task.version} is never sent to them
+     *                        and only catches two writes racing on one row
+     */
+    public Versioned<TaskDTO> update(Long id, String title, String description, Boolean done, Long expectedVersion) {
+        if (title == null && expectedVersion == null) {
+            Task t = tasks.findById(id).orElseThrow();
+            if (buffer.offer(id, t.getList().getId(), description, done))
+                return new Versioned<>(buffer.overlay(toDTO(t)), null);
+            // Refused (buffer full or closing): written through like any other update.
+        }
+        return tx.execute(s -> write(id, title, description, done, expectedVersion));
+    }
+
+    private Versioned<TaskDTO> write(Long id, String title, String description, Boolean done, Long expectedVersion) {
+        Optional<PendingWrite> taken = buffer.take(id);
         Task t = tasks.findById(id).orElseThrow();
+        Long listId = t.getList().getId();
+        taken.ifPresent(p -> p.applyTo(t));
+        long version = bump(listId, expectedVersion);
         if (title != null) {
             String newTitle = title.trim();
             if (newTitle.isBlank()) throw new IllegalArgumentException("Título é obrigatório");
             if (!t.getTitle().equals(newTitle) && tasks.existsByListIdAndTitle(t.getList().getId(), newTitle))
-                throw new IllegalStateException("Tarefa duplicada nesta lista");
+                throw new ConflictException("Tarefa duplicada nesta lista");
             t.setTitle(newTitle);
         }
         if (description != null) t.setDescription(description);
         if (done != null) t.setDone(done);
-        return new TaskDTO(t.getId(), t.getTitle(), t.getDescription(), t.isDone(), t.getDueDate());
+        publish(Type.TASK_UPDATED, t);
+        return new Versioned<>(toDTO(t), version);
     }
 
+    /**
+     * Places the task right after {@code afterId} in its list, or first when null. Only
+     * the moved task's row changes: it gets a key between its new neighbours' keys.
+     */
+    @Transactional
+    public Versioned<TaskDTO> move(Long id, Long afterId, Long expectedVersion) {
+        if (id.equals(afterId)) throw new IllegalArgumentException("Tarefa não pode ser posicionada após si mesma");
+        Optional<PendingWrite> taken = buffer.take(id);
+        Task t = tasks.findById(id).orElseThrow();
+        Long listId = t.getList().getId();
+        taken.ifPresent(p -> p.applyTo(t));
+        long version = bump(listId, expectedVersion);
+        String rank = rankAfter(listId, id, afterId);
+        if (rank == null || rank.length() > RankKeys.MAX_LENGTH) {
+            // Two tasks share a key, or the gap is exhausted: respread the list now.
+            rebalancer.rebalance(listId);
+            version = lists.findVersionById(listId).orElseThrow();
+            rank = rankAfter(listId, id, afterId);
+            if (rank == null) throw new ConflictException("Não foi possível posicionar a tarefa");
+        } else if (rank.length() > RankKeys.REBALANCE_LENGTH) {
+            rebalancer.request(listId);
+        }
+        t.setRank(rank);
+        publish(Type.TASK_UPDATED, t);
+        return new Versioned<>(toDTO(t), version);
+    }
+
+    @Transactional
     public void delete(Long id) {
-        tasks.deleteById(id);
+        buffer.take(id);
+        tasks.findById(id).ifPresent(t -> {
+            tasks.delete(t);
+            touch(Set.of(t.getList().getId()));
+            publish(Type.TASK_DELETED, t);
+        });
+    }
+
+    /**
+     * Creates many tasks in one transaction: one query for the lists, one for existing
+     * titles, then JDBC-batched inserts. Invalid items are reported and skipped rather
+     * than failing the whole batch.
+     */
+    @Transactional
+    public BatchResult addAll(List<TaskCreateItem> items) {
+        checkBatchSize(items.size());
+        Set<Long> listIds = items.stream().map(TaskCreateItem::listId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, TodoList> byId = lists.findAllById(listIds).stream()
+                .collect(Collectors.toMap(TodoList::getId, Function.identity()));
+        Set<String> titles = items.stream().map(i -> trimmed(i.title())).filter(t -> !t.isEmpty()).collect(Collectors.toSet());
+        Set<ListTitle> taken = existingTitles(byId.keySet(), titles);
+
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<Task> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            TaskCreateItem item = items.get(i);
+            String title = trimmed(item.title());
+            TodoList l = item.listId() != null ? byId.get(item.listId()) : null;
+            if (title.isEmpty()) results[i] = BatchItemResult.failed(i, Status.INVALID, "Título é obrigatório");
+            else if (l == null) results[i] = BatchItemResult.failed(i, Status.NOT_FOUND, "Lista não encontrada");
+            else if (!taken.add(new ListTitle(l.getId(), title).normalized()))
+                results[i] = BatchItemResult.failed(i, Status.DUPLICATE, "Tarefa duplicada nesta lista");
+            else {
+                boolean done = Boolean.TRUE.equals(item.done());
+                toSave.add(Task.builder().list(l).title(title).description(item.description())
+                        .done(done).completedAt(done ? LocalDateTime.now() : null).dueDate(item.dueDate()).build());
+                savedIndexes.add(i);
+            }
+        }
+        touch(toSave.stream().map(t -> t.getList().getId()).collect(Collectors.toSet()));
+        Map<Long, String> last = new HashMap<>();
+        for (Task t : toSave) {
+            Long listId = t.getList().getId();
+            String prev = last.containsKey(listId) ? last.get(listId) : lastRank(listId);
+            t.setRank(nextRank(listId, prev));
+            last.put(listId, t.getRank());
+        }
+        tasks.saveAll(toSave);
+        for (int k = 0; k < toSave.size(); k++) {
+            int i = savedIndexes.get(k);
+            results[i] = BatchItemResult.ok(i, Status.CREATED, toDTO(toSave.get(k)));
+            publish(Type.TASK_ADDED, toSave.get(k));
+        }
+        return BatchResult.of(Arrays.asList(results));
+    }
+
+    @Transactional
+    public BatchResult updateAll(List<TaskUpdateItem> items) {
+        return updateAll(items, true);
+    }
+
+    /**
+     * Writes changes drained from the {@link TaskWriteBuffer}. Unlike a client batch these
+     * are older than anything still buffered for the same task, so buffered changes are
+     * left for the next flush instead of being taken and overwritten.
+     */
+    @Transactional
+    public BatchResult writeBuffered(List<TaskUpdateItem> items) {
+        return updateAll(items, false);
+    }
+
+    private BatchResult updateAll(List<TaskUpdateItem> items, boolean takePending) {
+        checkBatchSize(items.size());
+        Set<Long> ids = items.stream().map(TaskUpdateItem::id).filter(Objects::nonNull).collect(Collectors.toSet());
+        // Taken before the tasks are read, so a flush in progress lands first (see TaskWriteBuffer#take).
+        Map<Long, PendingWrite> buffered = new HashMap<>();
+        if (takePending) ids.forEach(id -> buffer.take(id).ifPresent(p -> buffered.put(id, p)));
+        Map<Long, Task> byId = tasks.findAllWithListByIdIn(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Set<Long> listIds = byId.values().stream().map(t -> t.getList().getId()).collect(Collectors.toSet());
+        Set<String> titles = items.stream().map(i -> trimmed(i.title())).filter(t -> !t.isEmpty()).collect(Collectors.toSet());
+        Set<ListTitle> taken = existingTitles(listIds, titles);
+
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        Set<Long> touched = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            TaskUpdateItem item = items.get(i);
+            Task t = item.id() != null ? byId.get(item.id()) : null;
+            if (t == null) {
+                results.add(BatchItemResult.failed(i, Status.NOT_FOUND, "Tarefa não encontrada"));
+                continue;
+            }
+            PendingWrite p = buffered.remove(t.getId());
+            if (p != null) p.applyTo(t);
+            if (item.title() != null) {
+                String newTitle = item.title().trim();
+                if (newTitle.isBlank()) {
+                    results.add(BatchItemResult.failed(i, Status.INVALID, "Título é obrigatório"));
+                    continue;
+                }
+                // A title freed by another item in this batch stays taken: flush order is by id,
+                // so reusing it could hit the unique constraint before the rename lands.
+                if (!t.getTitle().equalsIgnoreCase(newTitle)
+                        && !taken.add(new ListTitle(t.getList().getId(), newTitle).normalized())) {
+                    results.add(BatchItemResult.failed(i, Status.DUPLICATE, "Tarefa duplicada nesta lista"));
+                    continue;
+                }
+                t.setTitle(newTitle);
+            }
+            if (item.description() != null) t.setDescription(item.description());
+            if (item.done() != null) t.setDone(item.done());
+            results.add(BatchItemResult.ok(i, Status.UPDATED, toDTO(t)));
+            touched.add(t.getList().getId());
+            publish(Type.TASK_UPDATED, t);
+        }
+        touch(touched);
+        return BatchResult.of(results);
+    }
+
+    @Transactional
+    public BatchResult deleteAll(List<Long> ids) {
+        checkBatchSize(ids.size());
+        ids.forEach(buffer::take);
+        List<TaskOwner> owners = tasks.findOwners(new HashSet<>(ids));
+        Set<Long> existing = owners.stream().map(TaskOwner::taskId).collect(Collectors.toCollection(HashSet::new));
+        tasks.deleteAllByIdInBatch(existing);
+        touch(owners.stream().map(TaskOwner::listId).collect(Collectors.toSet()));
+        owners.forEach(o -> events.publishEvent(ChangeEvent.task(Type.TASK_DELETED, o.userId(), o.listId(), o.taskId())));
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            // Report each id once: a repeated id in the request only deletes one row.
+            results.add(existing.remove(ids.get(i))
+                    ? BatchItemResult.ok(i, Status.DELETED, null)
+                    : BatchItemResult.failed(i, Status.NOT_FOUND, "Tarefa não encontrada"));
+        }
+        return BatchResult.of(results);
+    }
+
+    private Set<ListTitle> existingTitles(Collection<Long> listIds, Collection<String> titles) {
+        if (listIds.isEmpty() || titles.isEmpty()) return new HashSet<>();
+        return tasks.findTitles(listIds, titles).stream().map(ListTitle::normalized).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size == 0) throw new IllegalArgumentException("Lote vazio");
+        if (size > MAX_BATCH_SIZE) throw new IllegalArgumentException("Lote excede " + MAX_BATCH_SIZE + " itens");
+    }
+
+    private static String trimmed(String s) {
+        return s != null ? s.trim() : "";
+    }
+
+    /** Bumps the list version, as a compare-and-bump when the client sent If-Match. */
+    private long bump(Long listId, Long expectedVersion) {
+        if (expectedVersion != null) {
+            if (lists.bumpVersionIfMatches(listId, expectedVersion, LocalDateTime.now()) == 0)
+                throw new PreconditionFailedException("Lista foi alterada por outra requisição");
+            return expectedVersion + 1;
+        }
+        touch(Set.of(listId));
+        return lists.findVersionById(listId).orElseThrow();
+    }
+
+    /** Called after the list's version bump, as the repository's lock* queries expect. */
+    private String lastRank(Long listId) {
+        return tasks.lockLastRank(listId, Limit.of(1)).stream().findFirst().orElse(null);
+    }
+
+    private String nextRank(Long listId, String last) {
+        String rank = RankKeys.after(last);
+        if (rank.length() > RankKeys.REBALANCE_LENGTH) rebalancer.request(listId);
+        return rank;
+    }
+
+    /** Null when there is no room after {@code afterId} (it shares its key with the next task). */
+    private String rankAfter(Long listId, Long id, Long afterId) {
+        if (afterId == null) {
+            return RankKeys.between(null, tasks.lockRanksAfter(listId, "", 0L, id, Limit.of(1)).stream().findFirst().orElse(null));
+        }
+        String lo = tasks.lockRank(afterId, listId)
+                .orElseThrow(() -> new IllegalArgumentException("Tarefa de referência não está nesta lista"));
+        String hi = tasks.lockRanksAfter(listId, lo, afterId, id, Limit.of(1)).stream().findFirst().orElse(null);
+        return RankKeys.between(lo, hi);
+    }
+
+    private void touch(Set<Long> listIds) {
+        if (!listIds.isEmpty()) lists.bumpVersions(listIds, LocalDateTime.now());
+    }
+
+    private void publish(Type type, Task t) {
+        TodoList l = t.getList();
+        events.publishEvent(ChangeEvent.task(type, l.getUser().getId(), l.getId(), t.getId()));
+    }
+
+    private static TaskDTO toDTO(Task t) {
+        return new TaskDTO(t.getId(), t.getTitle(), t.getDescription(), t.isDone(), t.getDueDate(), t.getRank());
     }
 }
\ No newline at end of file
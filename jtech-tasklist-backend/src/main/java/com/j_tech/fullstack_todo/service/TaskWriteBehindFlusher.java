@@ -0,0 +1,86 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.datasource.ShardContext;
+import com.j_tech.fullstack_todo.datasource.ShardIds;
+import com.j_tech.fullstack_todo.dto.BatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background writer for {@link TaskWriteBuffer}: every {@code app.write-behind.flush-interval}
+ * writes the changes whose window has closed through {@link TaskService#writeBuffered}, in
+ * chunks of {@link TaskService#MAX_BATCH_SIZE} (one transaction, one version bump per
+ * list, JDBC-batched UPDATEs). A failed chunk goes back into the buffer for the next
+ * round. On shutdown the buffer stops accepting and everything left is flushed before
+ * the data source closes (this bean depends on TaskService, so it is destroyed first).
+ * Changes are grouped by bucket and each group written on its own shard.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.write-behind.enabled", havingValue = "true")
+public class TaskWriteBehindFlusher {
+
+    private final TaskWriteBuffer buffer;
+    private final TaskService tasks;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter written;
+
+    public TaskWriteBehindFlusher(TaskWriteBuffer buffer, TaskService tasks, MeterRegistry registry) {
+        this.buffer = buffer;
+        this.tasks = tasks;
+        this.written = registry.counter("task.write.buffer.flushed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.write-behind.flush-interval:PT0.2S}")
+    public void flushExpired() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buffer.close();
+        flush(true);
+        if (!buffer.isEmpty()) log.error("Write-behind buffer not empty at shutdown; buffered task updates were lost");
+    }
+
+    void flush(boolean all) {
+        lock.lock();
+        try {
+            Map<Integer, List<PendingWrite>> byBucket = new TreeMap<>();
+            for (PendingWrite w : buffer.drain(all)) {
+                byBucket.computeIfAbsent(ShardIds.bucketOf(w.taskId()), b -> new ArrayList<>()).add(w);
+            }
+            byBucket.forEach((bucket, drained) -> ShardContext.onBucket(bucket, () -> {
+                write(drained);
+                return null;
+            }));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(List<PendingWrite> drained) {
+        for (int from = 0; from < drained.size(); from += TaskService.MAX_BATCH_SIZE) {
+            List<PendingWrite> chunk = drained.subList(from, Math.min(drained.size(), from + TaskService.MAX_BATCH_SIZE));
+            try {
+                BatchResult r = tasks.writeBuffered(chunk.stream().map(PendingWrite::toItem).toList());
+                written.increment(r.succeeded());
+                buffer.complete(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush of {} task updates failed, retrying next round", chunk.size(), e);
+                buffer.restore(chunk);
+            }
+        }
+    }
+}
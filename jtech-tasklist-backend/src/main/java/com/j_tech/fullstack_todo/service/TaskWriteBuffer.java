@@ -0,0 +1,254 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.AgendaItem;
+import com.j_tech.fullstack_todo.dto.TaskDTO;
+import com.j_tech.fullstack_todo.dto.TaskPage;
+import com.j_tech.fullstack_todo.dto.TaskRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for {@code done}/{@code description} updates (the toggle and
+ * autosave traffic). Successive changes to a task inside {@code app.write-behind.window}
+ * coalesce into one {@link PendingWrite}; {@link TaskWriteBehindFlusher} drains
+ * expired ones and writes them through {@link TaskService#writeBuffered}.
+ * <p>
+ * Reads see buffered state: task pages, list previews, the agenda, search hits and
+ * exports are overlaid with pending and in-flight writes (drained but not yet
+ * committed), and lists with buffered writes get a distinct ETag suffix, so every
+ * reader (the writer included) sees its own changes before they reach the database.
+ * Results are not re-filtered or re-matched, so a task toggled in the buffer can show up
+ * in a {@code done=false} page or the agenda, and search matches the flushed text, until
+ * it is flushed. List summary counts lag by at most one window.
+ * <p>
+ * Backpressure: once {@code max-pending} tasks are buffered, or while shutting down,
+ * {@link #offer} refuses and the caller writes synchronously. Synchronous writes
+ * {@link #take} the task's buffered change before reading it, waiting out a flush in
+ * progress, and {@code Task.version} rejects whichever of two racing writes commits
+ * second, so neither side overwrites the other with older state.
+ */
+@Component
+public class TaskWriteBuffer {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxPending;
+    private final long inFlightWaitNanos;
+
+    private final Map<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Map<Long, PendingWrite> inFlight = new ConcurrentHashMap<>();
+    /** Per list: buffered entries outstanding and the sequence of the last change. */
+    private final Map<Long, long[]> listState = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean closed;
+    /** Signalled when in-flight writes land. Not a monitor: a virtual thread waiting on one stays pinned. */
+    private final ReentrantLock landing = new ReentrantLock();
+    private final Condition flushLanded = landing.newCondition();
+
+    private final Counter offered;
+    private final Counter coalesced;
+    private final Counter rejected;
+
+    public TaskWriteBuffer(@Value("${app.write-behind.enabled:false}") boolean enabled,
+                           @Value("${app.write-behind.window:PT1S}") Duration window,
+                           @Value("${app.write-behind.max-pending:10000}") int maxPending,
+                           @Value("${app.write-behind.in-flight-wait:PT2S}") Duration inFlightWait,
+                           MeterRegistry registry) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxPending = maxPending;
+        this.inFlightWaitNanos = inFlightWait.toNanos();
+        this.offered = registry.counter("task.write.buffer.offered");
+        this.coalesced = registry.counter("task.write.buffer.coalesced");
+        this.rejected = registry.counter("task.write.buffer.rejected");
+        Gauge.builder("task.write.buffer.pending", pending, Map::size).register(registry);
+    }
+
+    /** Buffers the change, or returns false when the caller must write it synchronously. */
+    public boolean offer(Long taskId, Long listId, String description, Boolean done) {
+        if (!enabled || closed) return false;
+        if (pending.size() >= maxPending && !pending.containsKey(taskId)) {
+            rejected.increment();
+            return false;
+        }
+        offered.increment();
+        long seq = sequence.incrementAndGet();
+        PendingWrite change = new PendingWrite(taskId, listId, description, done, System.nanoTime());
+        pending.compute(taskId, (id, old) -> {
+            if (old != null) {
+                coalesced.increment();
+                listState.computeIfPresent(listId, (l, s) -> new long[]{s[0], seq});
+                return old.then(change);
+            }
+            listState.merge(listId, new long[]{1, seq}, (s, one) -> new long[]{s[0] + 1, seq});
+            return change;
+        });
+        return true;
+    }
+
+    /**
+     * Removes and returns the buffered change for a task that is about to be written
+     * synchronously; call it before reading the task. A flush of the task in progress is
+     * waited for (up to {@code app.write-behind.in-flight-wait}), so the caller reads the
+     * flushed row, or gets the change back merged when the flush failed or is still
+     * running, in which case {@code Task.version} fails whichever write commits second.
+     * When the caller's transaction rolls back, the change goes back into the buffer.
+     */
+    Optional<PendingWrite> take(Long taskId) {
+        if (isEmpty()) return Optional.empty();
+        PendingWrite flying = awaitFlush(taskId);
+        PendingWrite p = pending.remove(taskId);
+        if (p != null) release(p.listId());
+        if (flying != null && inFlight.remove(taskId, flying)) {
+            release(flying.listId());
+            p = p != null ? flying.then(p) : flying;
+        }
+        if (p != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingWrite taken = p;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) putBack(taken);
+                }
+            });
+        }
+        return Optional.ofNullable(p);
+    }
+
+    /** The task's in-flight write if it is still there after waiting, else null. */
+    private PendingWrite awaitFlush(Long taskId) {
+        long left = inFlightWaitNanos;
+        landing.lock();
+        try {
+            PendingWrite flying;
+            while ((flying = inFlight.get(taskId)) != null) {
+                if (left <= 0) return flying;
+                try {
+                    left = flushLanded.awaitNanos(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return inFlight.get(taskId);
+                }
+            }
+            return null;
+        } finally {
+            landing.unlock();
+        }
+    }
+
+    /**
+     * Moves writes older than the window (or all of them) to in-flight, where they stay
+     * visible to readers until {@link #complete} or {@link #restore}.
+     */
+    List<PendingWrite> drain(boolean all) {
+        long now = System.nanoTime();
+        List<PendingWrite> drained = new ArrayList<>();
+        for (PendingWrite p : pending.values()) {
+            if (!all && now - p.since() < windowNanos) continue;
+            inFlight.put(p.taskId(), p);
+            if (pending.remove(p.taskId(), p)) drained.add(p);
+            else inFlight.remove(p.taskId(), p); // coalesced meanwhile; next round
+        }
+        return drained;
+    }
+
+    void complete(List<PendingWrite> written) {
+        for (PendingWrite p : written) {
+            if (inFlight.remove(p.taskId(), p)) release(p.listId());
+        }
+        landed();
+    }
+
+    /** Puts writes that failed to flush back, under any change that arrived since. */
+    void restore(List<PendingWrite> failed) {
+        for (PendingWrite p : failed) {
+            if (!inFlight.remove(p.taskId(), p)) continue;
+            release(p.listId());
+            putBack(p);
+        }
+        landed();
+    }
+
+    /** Re-buffers an older change under anything buffered for the task since. */
+    private void putBack(PendingWrite p) {
+        long seq = sequence.incrementAndGet();
+        pending.compute(p.taskId(), (id, newer) -> {
+            listState.merge(p.listId(), new long[]{newer == null ? 1 : 0, seq}, (s, add) -> new long[]{s[0] + add[0], seq});
+            return newer == null ? p : p.then(newer);
+        });
+    }
+
+    /** Wakes synchronous writers waiting in {@link #take}. */
+    private void landed() {
+        landing.lock();
+        try {
+            flushLanded.signalAll();
+        } finally {
+            landing.unlock();
+        }
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty() && inFlight.isEmpty();
+    }
+
+    public TaskDTO overlay(TaskDTO t) {
+        if (isEmpty()) return t;
+        PendingWrite p = buffered(t.id());
+        return p == null ? t : p.applyTo(t);
+    }
+
+    public TaskPage overlay(TaskPage page) {
+        if (isEmpty()) return page;
+        return new TaskPage(page.items().stream().map(this::overlay).toList(), page.nextCursor());
+    }
+
+    public AgendaItem overlay(AgendaItem a) {
+        if (isEmpty()) return a;
+        PendingWrite p = buffered(a.id());
+        return p == null || p.description() == null ? a
+                : new AgendaItem(a.id(), a.listId(), a.listName(), a.title(), p.description(), a.dueDate());
+    }
+
+    public TaskRecord overlay(TaskRecord r) {
+        if (isEmpty()) return r;
+        PendingWrite p = buffered(r.id());
+        return p == null ? r : new TaskRecord(r.id(), r.listId(), r.title(),
+                p.description() != null ? p.description() : r.description(),
+                p.done() != null ? p.done() : r.done(), r.dueDate(), r.createdAt());
+    }
+
+    /** In-flight and pending changes to a task combined, or null. */
+    private PendingWrite buffered(Long taskId) {
+        PendingWrite flying = inFlight.get(taskId);
+        PendingWrite waiting = pending.get(taskId);
+        if (flying == null) return waiting;
+        return waiting == null ? flying : flying.then(waiting);
+    }
+
+    /** Sequence of the last buffered change to the list, or 0 when nothing is buffered. */
+    public long pendingSequence(Long listId) {
+        long[] s = listState.get(listId);
+        return s != null ? s[1] : 0;
+    }
+
+    private void release(Long listId) {
+        listState.computeIfPresent(listId, (l, s) -> s[0] <= 1 ? null : new long[]{s[0] - 1, s[1]});
+    }
+}
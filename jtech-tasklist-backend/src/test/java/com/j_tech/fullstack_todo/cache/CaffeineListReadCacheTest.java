@@ -0,0 +1,53 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.j_tech.fullstack_todo.dto.TaskDTO;
+import com.j_tech.fullstack_todo.dto.TaskFilter;
+import com.j_tech.fullstack_todo.dto.TaskPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Pages are weighed by their tasks: a few large pages fill the cache that many small ones would not. */
+class CaffeineListReadCacheTest {
+
+    private static final TaskFilter ALL = new TaskFilter(null, null, null, false);
+
+    @Test
+    void pagesAreBoundedByTheTasksTheyHold() {
+        CaffeineListReadCache cache = new CaffeineListReadCache(100, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        // 40 single-task pages (weight 2 each) fit.
+        for (long list = 1; list <= 40; list++) cache.taskPage(key(list), () -> page(1, loads));
+        for (long list = 1; list <= 40; list++) cache.taskPage(key(list), () -> page(1, loads));
+        assertThat(loads).hasValue(40);
+
+        // Two 60-task pages do not: together they are past the 100 tasks allowed.
+        cache.taskPage(key(100), () -> page(60, loads));
+        cache.taskPage(key(101), () -> page(60, loads));
+        cache.pages.synchronous().cleanUp();
+        assertThat(cache.pages.synchronous().policy().eviction().orElseThrow().weightedSize().orElseThrow()).isBetween(1L, 100L);
+        int before = loads.get();
+        cache.taskPage(key(100), () -> page(60, loads));
+        cache.taskPage(key(101), () -> page(60, loads));
+        assertThat(loads.get() - before).as("reloads of the large pages").isPositive();
+    }
+
+    private static TaskPageKey key(long listId) {
+        return new TaskPageKey(listId, 1, ALL, null, 100);
+    }
+
+    private static TaskPage page(int tasks, AtomicInteger loads) {
+        loads.incrementAndGet();
+        List<TaskDTO> items = LongStream.rangeClosed(1, tasks)
+                .mapToObj(id -> new TaskDTO(id, "t" + id, null, false, null, "a"))
+                .toList();
+        return new TaskPage(items, null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.j_tech.fullstack_todo.cache;
+
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With the read cache on, a write that skips eviction (here, straight JDBC; in production,
+ * another instance) must not leave the cached body served under the new version's ETag.
+ */
+@SpringBootTest(properties = "app.cache.read.type=caffeine")
+@AutoConfigureMockMvc
+class ReadCacheVersionTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired UserRepository users;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void taskPageWrittenBehindTheCachesBackIsReloadedAndRetagged() throws Exception {
+        Long userId = users.save(User.builder().name("rc").email("rc-" + System.nanoTime() + "@test").build()).getId();
+        Long listId = lists.create(userId, "Versionada").id();
+        Long taskId = tasks.add(listId, "antes", null).id();
+        String before = pageTag(listId, null, "antes");
+
+        jdbc.update("update tasks set title = 'depois' where id = ?", taskId);
+        jdbc.update("update todo_lists set version = version + 1 where id = ?", listId);
+
+        String after = pageTag(listId, before, "depois");
+        assertThat(after).isNotEqualTo(before);
+        mvc.perform(get("/api/lists/{id}/tasks", listId).header(HttpHeaders.IF_NONE_MATCH, after).with(user("rc")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void summariesWrittenBehindTheCachesBackAreReloadedAndRetagged() throws Exception {
+        Long userId = users.save(User.builder().name("rc").email("rc-" + System.nanoTime() + "@test").build()).getId();
+        Long listId = lists.create(userId, "Antiga").id();
+        String before = summariesTag(userId, null, "Antiga");
+
+        jdbc.update("update todo_lists set name = 'Nova', version = version + 1 where id = ?", listId);
+
+        String after = summariesTag(userId, before, "Nova");
+        assertThat(after).isNotEqualTo(before);
+        mvc.perform(get("/api/lists").param("userId", userId.toString()).header(HttpHeaders.IF_NONE_MATCH, after)
+                        .with(user("rc")))
+                .andExpect(status().isNotModified());
+    }
+
+    private String pageTag(Long listId, String ifNoneMatch, String title) throws Exception {
+        var req = get("/api/lists/{id}/tasks", listId).with(user("rc"));
+        if (ifNoneMatch != null) req.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return tagOf(mvc.perform(req).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value(title))
+                .andReturn().getResponse());
+    }
+
+    private String summariesTag(Long userId, String ifNoneMatch, String name) throws Exception {
+        var req = get("/api/lists").param("userId", userId.toString()).with(user("rc"));
+        if (ifNoneMatch != null) req.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return tagOf(mvc.perform(req).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(name))
+                .andReturn().getResponse());
+    }
+
+    private static String tagOf(MockHttpServletResponse response) {
+        assertThat(response.getHeaders(HttpHeaders.ETAG)).hasSize(1);
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,56 @@
+package com.j_tech.fullstack_todo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"app.warmup.iterations=20", "app.warmup.max-duration=PT1M"})
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTest {
+
+    /** Warm-up iterations done when readiness turned ACCEPTING_TRAFFIC; -1 if it never did. */
+    static final AtomicInteger WARMED_AT_READY = new AtomicInteger(-1);
+
+    @TestConfiguration
+    static class ReadinessProbe {
+        @Bean
+        ApplicationListener<AvailabilityChangeEvent<ReadinessState>> warmupAtReadiness(StartupWarmup warmup) {
+            return e -> {
+                if (e.getState() == ReadinessState.ACCEPTING_TRAFFIC) WARMED_AT_READY.set(warmup.completedIterations());
+            };
+        }
+    }
+
+    @Autowired ConfigurableApplicationContext context;
+    @Autowired ApplicationAvailability availability;
+
+    @Test
+    void scheduledBeansStayEagerWhileOthersWaitForFirstUse() {
+        var beans = context.getBeanFactory();
+        assertThat(beans.containsSingleton("archiveService")).isTrue();
+        assertThat(beans.containsSingleton("taskRankRebalancer")).isTrue();
+        assertThat(beans.containsSingleton("taskSearchService")).isFalse();
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    void warmupRunsToCompletionBeforeReadinessAndCreatesTheRequestPathBeans() {
+        assertThat(WARMED_AT_READY).hasValue(20);
+        var beans = context.getBeanFactory();
+        assertThat(beans.containsSingleton("jwtService")).isTrue();
+        assertThat(beans.containsSingleton("taskRepository")).isTrue();
+        assertThat(beans.containsSingleton("todoListRepository")).isTrue();
+    }
+}
@@ -0,0 +1,142 @@
+package com.j_tech.fullstack_todo.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.j_tech.fullstack_todo.service.ListService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Over a real connector, where a rejected body is dispatched back as an error (MockMvc
+ * does not record it). One async thread with one queue slot and one export at a time:
+ * blocking the thread with a latch makes both the export cap and the pool's rejection
+ * easy to hit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.async.threads=1",
+        "app.async.queue-capacity=1",
+        "app.export.max-concurrent=1",
+        "app.rate-limit.enabled=false"
+})
+class WebAsyncConfigTest {
+
+    @Autowired TestRestTemplate http;
+    @Autowired WebAsyncConfig config;
+    @Autowired ListService lists;
+
+    @Test
+    void exportBeyondTheCapIsTurnedAwayAndTheSlotComesBack() throws Exception {
+        JsonNode login = login("cap@async.test");
+        lists.create(login.at("/user/id").asLong(), "Mercado");
+
+        CountDownLatch release = blockAsyncThread();
+        CompletableFuture<ResponseEntity<String>> first;
+        try {
+            first = CompletableFuture.supplyAsync(() -> export(login));
+            for (int i = 0; i < 250 && pool().getQueue().isEmpty(); i++) Thread.sleep(20);
+            assertThat(pool().getQueue()).hasSize(1);
+
+            ResponseEntity<String> second = export(login);
+            assertThat(second.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+            assertThat(second.getBody()).contains("SERVER_BUSY");
+        } finally {
+            release.countDown();
+        }
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).contains("\"name\":\"Mercado\"");
+        assertThat(export(login).getBody()).contains("\"name\":\"Mercado\"");
+    }
+
+    @Test
+    void bodyRejectedByAFullPoolGets503AndGivesItsSlotBack() throws Exception {
+        JsonNode login = login("full@async.test");
+
+        CountDownLatch release = blockAsyncThread();
+        try {
+            config.executor.execute(() -> { });
+            ResponseEntity<String> rejected = export(login);
+            assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(rejected.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(rejected.getHeaders()).doesNotContainKey(HttpHeaders.CONTENT_DISPOSITION);
+            assertThat(rejected.getBody()).contains("SERVER_BUSY");
+        } finally {
+            release.countDown();
+        }
+        for (int i = 0; i < 250 && (pool().getActiveCount() > 0 || !pool().getQueue().isEmpty()); i++) Thread.sleep(20);
+        assertThat(export(login).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void listsWithTasksStreamOnTheAsyncPool() throws Exception {
+        JsonNode login = login("lists@async.test");
+        lists.create(login.at("/user/id").asLong(), "Casa");
+
+        long before = pool().getCompletedTaskCount();
+        ResponseEntity<String> ok = listsWithTasks(login);
+        assertThat(ok.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ok.getBody()).contains("\"name\":\"Casa\"");
+        // Counted once the task returns, which can be just after the response is sent.
+        for (int i = 0; i < 250 && pool().getCompletedTaskCount() == before; i++) Thread.sleep(20);
+        assertThat(pool().getCompletedTaskCount()).isEqualTo(before + 1);
+
+        CountDownLatch release = blockAsyncThread();
+        try {
+            config.executor.execute(() -> { });
+            ResponseEntity<String> rejected = listsWithTasks(login);
+            assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(rejected.getBody()).contains("SERVER_BUSY");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private ThreadPoolExecutor pool() {
+        return config.executor.getThreadPoolExecutor();
+    }
+
+    private CountDownLatch blockAsyncThread() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        config.executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    private JsonNode login(String email) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return http.exchange("/api/auth/login", HttpMethod.POST,
+                new HttpEntity<>(Map.of("username", email, "password", "x"), headers), JsonNode.class).getBody();
+    }
+
+    private ResponseEntity<String> listsWithTasks(JsonNode login) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.get("token").asText());
+        return http.exchange("/api/lists?userId={id}&include=tasks", HttpMethod.GET, new HttpEntity<>(headers), String.class,
+                login.at("/user/id").asLong());
+    }
+
+    private ResponseEntity<String> export(JsonNode login) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.get("token").asText());
+        return http.exchange("/api/export?userId={id}", HttpMethod.GET, new HttpEntity<>(headers), String.class,
+                login.at("/user/id").asLong());
+    }
+}
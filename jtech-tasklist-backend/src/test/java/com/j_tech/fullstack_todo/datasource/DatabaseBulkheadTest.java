@@ -0,0 +1,79 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.j_tech.fullstack_todo.exception.DatabaseBusyException;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Two permits: two transactions hold them, a third caller is turned away after the timeout. */
+@SpringBootTest(properties = {
+        "app.db.bulkhead.permits=2",
+        "app.db.bulkhead.acquire-timeout=PT0.3S"
+})
+class DatabaseBulkheadTest {
+
+    @Autowired Holder holder;
+    @Autowired UserRepository users;
+    @Autowired HikariDataSource pool;
+
+    @Test
+    void callerBeyondThePermitsIsRejectedAfterTheAcquireTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Void>> holding = new ArrayList<>();
+        for (int i = 0; i < 2; i++) holding.add(CompletableFuture.runAsync(() -> holder.hold(started, release)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> users.count()).isInstanceOf(DatabaseBusyException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(250);
+
+        release.countDown();
+        CompletableFuture.allOf(holding.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        users.count();
+        // Connections go back with the permits; nothing outlives the transaction.
+        assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        Holder holder(UserRepository users) {
+            return new Holder(users);
+        }
+    }
+
+    static class Holder {
+        private final UserRepository users;
+
+        Holder(UserRepository users) {
+            this.users = users;
+        }
+
+        /** Uses a connection, then keeps it (and the permit) until released. */
+        @Transactional
+        public void hold(CountDownLatch started, CountDownLatch release) {
+            users.count();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
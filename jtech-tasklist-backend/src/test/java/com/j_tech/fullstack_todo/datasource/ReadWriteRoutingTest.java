@@ -0,0 +1,162 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.j_tech.fullstack_todo.dto.ListDTO;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ListService;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary and replica are two separate in-memory H2 databases; the replica is served
+ * over TCP so it can be taken down. Replication is simulated by copying the primary
+ * with {@code SCRIPT}, so anything written afterwards is visible on the primary only.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.read-your-writes=PT0.5S",
+        "app.datasource.health-interval=PT1H",
+        "app.cache.read.type=none",
+        "app.rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadWriteRoutingTest {
+
+    private static final Server REPLICA_SERVER = startReplicaServer();
+    private static final String REPLICA_URL = "jdbc:h2:tcp://localhost:" + REPLICA_SERVER.getPort()
+            + "/mem:rw-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replicas[0].url", () -> REPLICA_URL);
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired ListService lists;
+    @Autowired UserRepository users;
+    @Autowired ReadWriteRoutingDataSource routing;
+    @Autowired @Qualifier("primaryDataSource") DataSource primary;
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        REPLICA_SERVER.stop();
+    }
+
+    /** Last: takes the replica down. */
+    @Test
+    @Order(2)
+    void readsGoToReplicaExceptForRecentWritersAndUnhealthyReplicas() throws Exception {
+        Long userId = users.save(User.builder().name("rw").email("rw@test").build()).getId();
+        lists.create(userId, "replicated");
+        replicate();
+        lists.create(userId, "primary-only");
+
+        assertThat(names(userId)).containsExactly("replicated");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("rw", null, List.of()));
+        lists.create(userId, "own-write");
+        assertThat(names(userId)).containsExactlyInAnyOrder("replicated", "primary-only", "own-write");
+
+        Thread.sleep(700);
+        assertThat(names(userId)).containsExactly("replicated");
+
+        REPLICA_SERVER.stop();
+        routing.checkReplicas();
+        assertThat(routing.replicaHealth()).containsEntry("replica-0", false);
+        assertThat(names(userId)).containsExactlyInAnyOrder("replicated", "primary-only", "own-write");
+    }
+
+    /**
+     * A read-only transaction (replica) followed by a write in the same request: the write
+     * must get its own primary connection rather than the replica one the read used.
+     */
+    @Test
+    @Order(1)
+    void writeAfterReadInOneRequestGoesToPrimary() throws Exception {
+        Long userId = users.save(User.builder().name("osiv").email("osiv@test").build()).getId();
+        replicate();
+
+        mvc.perform(post("/test/read-then-write").param("userId", userId.toString()).param("name", "after-read")
+                        .with(user("osiv")))
+                .andExpect(status().isOk());
+
+        String count = "select count(*) from todo_lists where name = 'after-read'";
+        assertThat(new JdbcTemplate(primary).queryForObject(count, Integer.class)).isOne();
+        assertThat(new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).queryForObject(count, Integer.class)).isZero();
+    }
+
+    private List<String> names(Long userId) {
+        return lists.findAll(userId).stream().map(ListDTO::name).toList();
+    }
+
+    private void replicate() {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        new JdbcTemplate(primary).queryForList("SCRIPT", String.class).forEach(replica::execute);
+    }
+
+    @TestConfiguration
+    @Import(ReadThenWriteController.class)
+    static class ReadThenWrite {
+    }
+
+    @RestController
+    static class ReadThenWriteController {
+        private final ListService lists;
+
+        ReadThenWriteController(ListService lists) {
+            this.lists = lists;
+        }
+
+        @PostMapping("/test/read-then-write")
+        ListDTO readThenWrite(@RequestParam Long userId, @RequestParam String name) {
+            lists.findAll(userId);
+            return lists.create(userId, name);
+        }
+    }
+
+    private static Server startReplicaServer() {
+        try {
+            return Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.j_tech.fullstack_todo.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.exception.DatabaseBusyException;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Three in-memory H2 databases as shards; the bucket map lives on shard-0. */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[0].url=jdbc:h2:mem:shard-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[1].url=jdbc:h2:mem:shard-2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sharding.map-refresh=PT1H",
+        "app.sharding.migration-grace=PT0.05S",
+        "app.rate-limit.enabled=false",
+        "app.cache.read.type=none"
+})
+@AutoConfigureMockMvc
+class ShardingTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper mapper;
+    @Autowired ShardMap map;
+    @Autowired ShardRoutingDataSource routing;
+    @Autowired ShardMigrator migrator;
+    @Autowired UserRepository users;
+    @Autowired ArchiveService archive;
+    @Autowired PlatformTransactionManager txManager;
+    TransactionTemplate tx;
+    TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void transactions() {
+        tx = new TransactionTemplate(txManager);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @Test
+    void eachUserAndTheirDataLiveOnTheShardOfTheirBucket() throws Exception {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> listIds = new HashSet<>();
+        for (int shard = 0; shard < map.shardCount(); shard++) {
+            String email = emailOnShard(shard, "home");
+            JsonNode login = login(email);
+            long userId = login.at("/user/id").asLong();
+            userIds.add(userId);
+            assertThat(ShardIds.bucketOf(userId)).isEqualTo(ShardIds.bucketOf(email));
+
+            long listId = createList(login, "inbox");
+            assertThat(ShardIds.bucketOf(listId)).isEqualTo(ShardIds.bucketOf(userId));
+            listIds.add(listId);
+
+            for (int s = 0; s < map.shardCount(); s++) {
+                int expected = s == shard ? 1 : 0;
+                assertThat(count(s, "users", userId)).as("user on shard %d", s).isEqualTo(expected);
+                assertThat(count(s, "todo_lists", listId)).as("list on shard %d", s).isEqualTo(expected);
+            }
+            // Same e-mail logs into the same user, not a second one on another shard.
+            assertThat(login(email).at("/user/id").asLong()).isEqualTo(userId);
+        }
+        // Every shard runs its own sequences from 1; ids still differ by bucket and origin bits.
+        assertThat(userIds).hasSize(map.shardCount());
+        assertThat(listIds).hasSize(map.shardCount());
+    }
+
+    @Test
+    void movedBucketKeepsItsDataAndSessions() throws Exception {
+        String email = emailOnShard(1, "mover");
+        int bucket = ShardIds.bucketOf(email);
+        JsonNode login = login(email);
+        long userId = login.at("/user/id").asLong();
+        long listId = createList(login, "travels");
+
+        ShardMigrator.Move move = migrator.move(bucket, 2);
+
+        assertThat(move.rows()).containsEntry("users", 1).containsEntry("todo_lists", 1).containsEntry("refresh_tokens", 1);
+        assertThat(map.shardOf(bucket)).isEqualTo(2);
+        assertThat(map.isMoving(bucket)).isFalse();
+        assertThat(count(1, "users", userId)).isZero();
+        assertThat(count(2, "todo_lists", listId)).isEqualTo(1);
+        assertThat(new JdbcTemplate(routing.shard(2)).queryForObject("select bucket from todo_lists where id = ?", Integer.class, listId))
+                .as("bucket column recomputed on the target").isEqualTo(bucket);
+
+        mvc.perform(get("/api/lists").param("userId", String.valueOf(userId)).header("Authorization", bearer(login)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("travels"));
+        JsonNode refreshed = mapper.readTree(mvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + login.get("refreshToken").asText() + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        // New rows come from shard 2's sequence and say so; they cannot collide with the copied ones.
+        long next = createList(refreshed, "after-move");
+        assertThat(next >> ShardIds.BUCKET_BITS & (ShardIds.MAX_SHARDS - 1)).isEqualTo(2);
+        assertThat(ShardIds.bucketOf(next)).isEqualTo(bucket);
+    }
+
+    @Test
+    void writesToAFrozenBucketAreRejected() throws Exception {
+        String email = emailOnShard(0, "frozen");
+        JsonNode login = login(email);
+        map.setMoving(ShardIds.bucketOf(email), true);
+        try {
+            mvc.perform(post("/api/lists").param("userId", login.at("/user/id").asText()).param("name", "x")
+                            .header("Authorization", bearer(login)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.code").value("DATABASE_BUSY"));
+            // Per-shard jobs write any bucket of their shard: refused on every shard during a move.
+            assertThatThrownBy(() -> ShardContext.onShard(1, () -> tx.execute(s -> users.save(User.builder().email("job@shard.test").build()))))
+                    .isInstanceOf(DatabaseBusyException.class);
+            Long read = ShardContext.onShard(1, () -> readOnlyTx.execute(s -> users.count()));
+            assertThat(read).as("read-only work still runs").isNotNull();
+            assertThat(archive.archiveCompletedBefore(LocalDateTime.now())).isZero();
+        } finally {
+            map.setMoving(ShardIds.bucketOf(email), false);
+        }
+    }
+
+    @Test
+    void streamedResponsesRunOnTheShardOfTheirUser() throws Exception {
+        JsonNode login = login(emailOnShard(1, "stream"));
+        String userId = login.at("/user/id").asText();
+        createList(login, "remota");
+
+        // Both bodies are written on the async request pool, away from the request thread's shard.
+        mvc.perform(asyncDispatch(started(get("/api/export").param("userId", userId).header("Authorization", bearer(login)))))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"name\":\"remota\"")));
+        mvc.perform(asyncDispatch(started(get("/api/lists").param("userId", userId).param("include", "tasks")
+                        .header("Authorization", bearer(login)))))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"name\":\"remota\"")));
+    }
+
+    private MvcResult started(MockHttpServletRequestBuilder req) throws Exception {
+        return mvc.perform(req).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private String emailOnShard(int shard, String prefix) {
+        for (int i = 0; ; i++) {
+            String email = prefix + i + "@shard.test";
+            if (map.shardOf(ShardIds.bucketOf(email)) == shard) return email;
+        }
+    }
+
+    private JsonNode login(String email) throws Exception {
+        return mapper.readTree(mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + email + "\",\"password\":\"x\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private long createList(JsonNode login, String name) throws Exception {
+        String body = mvc.perform(post("/api/lists").param("userId", login.at("/user/id").asText()).param("name", name)
+                        .header("Authorization", bearer(login)))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(body).get("id").asLong();
+    }
+
+    private static String bearer(JsonNode login) {
+        return "Bearer " + login.get("token").asText();
+    }
+
+    private int count(int shard, String table, long id) {
+        return new JdbcTemplate(routing.shard(shard)).queryForObject("select count(*) from " + table + " where id = ?", Integer.class, id);
+    }
+}
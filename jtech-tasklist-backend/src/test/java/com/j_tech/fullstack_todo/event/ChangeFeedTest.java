@@ -0,0 +1,158 @@
+package com.j_tech.fullstack_todo.event;
+
+import com.j_tech.fullstack_todo.event.ChangeEvent.Type;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Events are published straight into the feed (as after a commit) and read back from the
+ * SSE response body. One feed thread and a drain queue of one make the pool easy to
+ * saturate; a ring of 8 and per-subscriber buffers of 4 make both easy to overflow.
+ */
+@SpringBootTest(properties = {
+        "app.feed.threads=1",
+        "app.feed.queue-capacity=1",
+        "app.feed.ring-size=8",
+        "app.feed.buffer-size=4",
+        "app.feed.heartbeat=PT1H"
+})
+@AutoConfigureMockMvc
+class ChangeFeedTest {
+
+    private static final Pattern ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+    private static final AtomicLong USERS = new AtomicLong(1_000_000);
+
+    @Autowired MockMvc mvc;
+    @Autowired ChangeFeed feed;
+    @Autowired MeterRegistry registry;
+
+    @Test
+    void reconnectReplaysEventsAfterLastEventId() throws Exception {
+        long userId = USERS.incrementAndGet();
+        MockHttpServletResponse live = subscribe(userId, null);
+        publish(userId, 3);
+        List<Long> ids = awaitIds(live, 3);
+
+        MockHttpServletResponse resumed = subscribe(userId, ids.get(0));
+        assertThat(awaitIds(resumed, 2)).containsExactly(ids.get(1), ids.get(2));
+        assertThat(resumed.getContentAsString()).doesNotContain("event:resync");
+    }
+
+    @Test
+    void reconnectBehindTheRingGetsResync() throws Exception {
+        long userId = USERS.incrementAndGet();
+        MockHttpServletResponse live = subscribe(userId, null);
+        publish(userId, 1);
+        long seen = awaitIds(live, 1).get(0);
+        publish(USERS.incrementAndGet(), 9);
+
+        MockHttpServletResponse resumed = subscribe(userId, seen);
+        awaitContent(resumed, "event:resync");
+        assertThat(ids(resumed)).isEmpty();
+        // An id this instance never issued (another instance's, or from before a restart).
+        awaitContent(subscribe(userId, Long.MAX_VALUE / 2), "event:resync");
+    }
+
+    @Test
+    void slowSubscriberLosesItsBacklogAndGetsOneResync() throws Exception {
+        long userId = USERS.incrementAndGet();
+        MockHttpServletResponse res = subscribe(userId, null);
+        awaitContent(res, ":ping");
+
+        CountDownLatch release = blockFeedThread();
+        publish(userId, 10);
+        release.countDown();
+        awaitContent(res, "event:resync");
+        publish(userId, 1);
+        awaitIds(res, 1);
+
+        String body = res.getContentAsString();
+        assertThat(body.split("event:resync", -1)).hasSize(2);
+        assertThat(ids(res)).hasSizeLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void subscriberTurnedAwayByASaturatedPoolIsDisconnected() throws Exception {
+        double before = registry.counter("feed.rejected").count();
+        CountDownLatch release = blockFeedThread();
+        feed.executor.execute(() -> { });
+        MvcResult result;
+        try {
+            result = mvc.perform(get("/api/events").param("userId", Long.toString(USERS.incrementAndGet())).with(user("feed")))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+        } finally {
+            release.countDown();
+        }
+        assertThat(registry.counter("feed.rejected").count()).isEqualTo(before + 1);
+        // Throws unless the emitter completed and the async request was dispatched back.
+        result.getAsyncResult(5000);
+        assertThat(result.getResponse().getContentAsString()).doesNotContain(":ping");
+    }
+
+    private CountDownLatch blockFeedThread() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        feed.executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    private MockHttpServletResponse subscribe(long userId, Long lastEventId) throws Exception {
+        var req = get("/api/events").param("userId", Long.toString(userId)).with(user("feed"));
+        if (lastEventId != null) req.header("Last-Event-ID", lastEventId);
+        return mvc.perform(req).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private void publish(long userId, int n) {
+        for (int i = 0; i < n; i++) feed.on(ChangeEvent.task(Type.TASK_UPDATED, userId, 1L, (long) i));
+    }
+
+    private static List<Long> awaitIds(MockHttpServletResponse res, int n) throws Exception {
+        for (int i = 0; i < 250 && ids(res).size() < n; i++) Thread.sleep(20);
+        assertThat(ids(res)).hasSizeGreaterThanOrEqualTo(n);
+        return ids(res);
+    }
+
+    private static void awaitContent(MockHttpServletResponse res, String s) {
+        try {
+            for (int i = 0; i < 250 && !res.getContentAsString().contains(s); i++) Thread.sleep(20);
+            assertThat(res.getContentAsString()).contains(s);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Long> ids(MockHttpServletResponse res) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        Matcher m = ID.matcher(res.getContentAsString());
+        while (m.find()) ids.add(Long.parseLong(m.group(1)));
+        return ids;
+    }
+}
@@ -0,0 +1,95 @@
+package com.j_tech.fullstack_todo.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.dto.TaskCreateItem;
+import com.j_tech.fullstack_todo.dto.TaskUpdateItem;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-endpoint SQL meters recorded by {@link RequestMetricsFilter}. The limit is set to
+ * one statement so that a task page (version lookup + keyset query) counts as excessive.
+ */
+@SpringBootTest(properties = {
+        "app.cache.read.type=none",
+        "app.metrics.sql.max-statements-per-request=1"
+})
+@AutoConfigureMockMvc
+class RequestMetricsFilterTest {
+
+    private static final String URI = "/api/lists/{id}/tasks";
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper mapper;
+    @Autowired MeterRegistry registry;
+    @Autowired UserRepository users;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+
+    @Test
+    void requestRecordsItsStatementsSqlTimeAndEntityLoadsUnderTheRoutePattern() throws Exception {
+        Long userId = users.save(User.builder().name("meters").email("meters-" + System.nanoTime() + "@test").build()).getId();
+        Long listId = lists.create(userId, "Medida").id();
+        List<Long> ids = tasks.addAll(List.of(new TaskCreateItem(listId, "a", null), new TaskCreateItem(listId, "b", null),
+                new TaskCreateItem(listId, "c", null))).items().stream().map(r -> r.task().id()).toList();
+
+        DistributionSummary statements = summary("http.server.requests.sql.statements");
+        Timer sqlTime = registry.timer("http.server.requests.sql.time", "method", "GET", "uri", URI);
+        DistributionSummary loads = summary("http.server.requests.entity.loads");
+        long calls = statements.count();
+        double statementTotal = statements.totalAmount();
+        double loadTotal = loads.totalAmount();
+        double excessive = registry.counter("http.server.requests.sql.excessive", "method", "GET", "uri", URI).count();
+
+        mvc.perform(get(URI, listId).with(user("meters"))).andExpect(status().isOk());
+
+        assertThat(statements.count()).isEqualTo(calls + 1);
+        assertThat(statements.totalAmount() - statementTotal).isEqualTo(2);
+        assertThat(sqlTime.count()).isEqualTo(calls + 1);
+        assertThat(sqlTime.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        // The page is read as DTOs, so nothing is hydrated.
+        assertThat(loads.totalAmount() - loadTotal).isZero();
+        assertThat(registry.counter("http.server.requests.sql.excessive", "method", "GET", "uri", URI).count())
+                .isEqualTo(excessive + 1);
+
+        DistributionSummary batchLoads = registry.summary("http.server.requests.entity.loads", "method", "PUT", "uri", "/api/tasks/batch");
+        double batchLoadTotal = batchLoads.totalAmount();
+        mvc.perform(put("/api/tasks/batch").with(user("meters")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsBytes(ids.stream().map(id -> new TaskUpdateItem(id, null, null, true)).toList())))
+                .andExpect(status().isOk());
+        // The three tasks, their list and its owner, fetched in one query.
+        assertThat(batchLoads.totalAmount() - batchLoadTotal).isEqualTo(5);
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotAttributedToOne() {
+        RequestSqlStats stats = RequestSqlStats.begin();
+        RequestSqlStats.end();
+        users.save(User.builder().name("meters").email("outside-" + System.nanoTime() + "@test").build());
+        assertThat(stats.statements()).isZero();
+    }
+
+    private DistributionSummary summary(String name) {
+        return registry.summary(name, "method", "GET", "uri", URI);
+    }
+}
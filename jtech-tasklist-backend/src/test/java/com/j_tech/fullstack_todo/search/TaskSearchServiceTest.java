@@ -0,0 +1,104 @@
+package com.j_tech.fullstack_todo.search;
+
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.service.ListService;
+import com.j_tech.fullstack_todo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.search.ttl=PT1S")
+class TaskSearchServiceTest {
+
+    @Autowired TaskSearchService search;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+    @Autowired UserRepository users;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void foldsAccentsRanksTitlesFirstAndPaginates() {
+        Long userId = users.save(User.builder().name("busca").email("busca@test").build()).getId();
+        Long listId = lists.create(userId, "trabalho").id();
+        List<TaskCreateItem> items = new ArrayList<>(List.of(
+                new TaskCreateItem(listId, "Revisar planilha", "números do orçamento"),
+                new TaskCreateItem(listId, "Orcamento anual", null),
+                new TaskCreateItem(listId, "Comprar pão", "padaria da esquina")));
+        for (int i = 0; i < 25; i++) items.add(new TaskCreateItem(listId, "Relatório semanal " + i, null));
+        tasks.addAll(items);
+
+        assertThat(titles(search.search(userId, "ORÇAMENTO", null, 10)))
+                .containsExactly("Orcamento anual", "Revisar planilha");
+        assertThat(titles(search.search(userId, "pao padar", null, 10))).containsExactly("Comprar pão");
+        assertThat(search.search(userId, "pão mercado", null, 10).items()).isEmpty();
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SearchPage page = search.search(userId, "relat", cursor, 10);
+            page.items().forEach(h -> assertThat(seen.add(h.id())).isTrue());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        assertThat(seen).hasSize(25);
+        assertThat(pages).isEqualTo(3);
+
+        assertThatThrownBy(() -> search.search(userId, "a", null, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> search.search(userId, "relat", "lixo", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void followsWritesAfterTheIndexIsBuilt() {
+        Long userId = users.save(User.builder().name("inc").email("inc@test").build()).getId();
+        Long listId = lists.create(userId, "casa").id();
+        TaskDTO lavar = tasks.add(listId, "Lavar carro", null);
+        assertThat(titles(search.search(userId, "carro", null, 10))).containsExactly("Lavar carro");
+
+        TaskDTO pintar = tasks.add(listId, "Pintar garagem", "comprar tinta");
+        tasks.update(lavar.id(), "Lavar moto", null, null);
+        assertThat(titles(search.search(userId, "carro", null, 10))).isEmpty();
+        assertThat(titles(search.search(userId, "moto", null, 10))).containsExactly("Lavar moto");
+        assertThat(titles(search.search(userId, "tinta", null, 10))).containsExactly("Pintar garagem");
+
+        tasks.update(pintar.id(), null, null, true);
+        TaskDTO outra = tasks.add(listId, "Pintar portão", null);
+        assertThat(search.search(userId, "pintar", null, 10).items()).extracting(SearchHit::id)
+                .as("done tasks rank below open ones")
+                .containsExactly(outra.id(), pintar.id());
+
+        tasks.delete(outra.id());
+        assertThat(titles(search.search(userId, "pintar", null, 10))).containsExactly("Pintar garagem");
+
+        lists.delete(listId, true);
+        assertThat(search.search(userId, "lavar", null, 10).items()).isEmpty();
+    }
+
+    /** A write through another instance, played by plain JDBC, sends no event here. */
+    @Test
+    void searchingKeepsNoIndexPastItsTtl() throws InterruptedException {
+        Long userId = users.save(User.builder().name("ttl").email("ttl@test").build()).getId();
+        Long listId = lists.create(userId, "garagem").id();
+        Long taskId = tasks.add(listId, "Lavar moto", null).id();
+        assertThat(titles(search.search(userId, "moto", null, 10))).containsExactly("Lavar moto");
+
+        jdbc.update("update tasks set title = 'Lavar carro' where id = ?", taskId);
+        assertThat(search.search(userId, "carro", null, 10).items()).isEmpty();
+        Thread.sleep(600);
+        assertThat(search.search(userId, "carro", null, 10).items()).isEmpty();
+        Thread.sleep(600);
+        assertThat(titles(search.search(userId, "carro", null, 10))).containsExactly("Lavar carro");
+    }
+
+    private static List<String> titles(SearchPage page) {
+        return page.items().stream().map(SearchHit::title).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.j_tech.fullstack_todo.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class AuthFlowTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper mapper;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void meIsServedFromClaims() throws Exception {
+        JsonNode login = login("claims@test.local");
+        long id = login.at("/user/id").asLong();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + login.get("token").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.name").value("claims"))
+                .andExpect(jsonPath("$.email").value("claims@test.local"));
+        assertThat(stats.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void refreshRotatesAndReuseRevokesTheFamily() throws Exception {
+        String first = login("rotate@test.local").get("refreshToken").asText();
+
+        JsonNode refreshed = refresh(first, 200);
+        String second = refreshed.get("refreshToken").asText();
+        assertThat(second).isNotEqualTo(first);
+        mvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + refreshed.get("token").asText()))
+                .andExpect(jsonPath("$.email").value("rotate@test.local"));
+
+        // Replaying the consumed token revokes its successor as well.
+        refresh(first, 401);
+        refresh(second, 401);
+    }
+
+    @Test
+    void logoutRevokesTheRefreshToken() throws Exception {
+        String token = login("logout@test.local").get("refreshToken").asText();
+        mvc.perform(post("/api/auth/logout").contentType(MediaType.APPLICATION_JSON).content(body(token)))
+                .andExpect(status().isNoContent());
+        refresh(token, 401);
+    }
+
+    private JsonNode login(String email) throws Exception {
+        String res = mvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + email + "\",\"password\":\"x\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(res);
+    }
+
+    private JsonNode refresh(String token, int expectedStatus) throws Exception {
+        String res = mvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON).content(body(token)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(res);
+    }
+
+    private static String body(String refreshToken) {
+        return "{\"refreshToken\":\"" + refreshToken + "\"}";
+    }
+}
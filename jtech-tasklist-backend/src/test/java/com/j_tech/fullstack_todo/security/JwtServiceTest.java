@@ -0,0 +1,79 @@
+package com.j_tech.fullstack_todo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Verified-token cache hits, and the tokens it must never answer: tampered, foreign, expired. */
+class JwtServiceTest {
+
+    private static final String SECRET = "dGVzdC1qd3Qtc2VjcmV0LWZvci11bml0LXRlc3RzLWF0LWxlYXN0LTMyLWJ5dGVz";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedVerificationIsServedFromTheCache() {
+        JwtService jwt = service(900);
+        String token = jwt.generateToken("7", Map.of("email", "a@test"));
+        Object parser = ReflectionTestUtils.getField(jwt, "parser");
+
+        Claims first = jwt.verify(token);
+        Claims again = jwt.verify(token);
+
+        assertThat(again).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo("7");
+        assertThat(registry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(ReflectionTestUtils.getField(jwt, "parser")).isSameAs(parser);
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejectedEvenNextToACachedOne() {
+        JwtService jwt = service(900);
+        String token = jwt.generateToken("7");
+        jwt.verify(token);
+
+        String[] parts = token.split("\\.");
+        String otherPayload = jwt.generateToken("8").split("\\.")[1];
+        assertThatThrownBy(() -> jwt.verify(parts[0] + "." + otherPayload + "." + parts[2]))
+                .isInstanceOf(JwtException.class);
+
+        String foreign = Jwts.builder().subject("7").expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("another-secret-another-secret-another-secret".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertThatThrownBy(() -> jwt.verify(foreign)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void cachedTokenStopsVerifyingAtItsExpiry() throws Exception {
+        // exp has whole-second precision, so a 2 s token lives between 1 and 2 s.
+        JwtService jwt = service(2);
+        String token = jwt.generateToken("7");
+        assertThat(jwt.verify(token).getSubject()).isEqualTo("7");
+
+        Thread.sleep(2100);
+        assertThatThrownBy(() -> jwt.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    private JwtService service(long expirationSeconds) {
+        JwtService jwt = new JwtService(new VerifiedTokenCache(100, registry));
+        ReflectionTestUtils.setField(jwt, "secret", SECRET);
+        ReflectionTestUtils.setField(jwt, "expirationSeconds", expirationSeconds);
+        jwt.init();
+        return jwt;
+    }
+}
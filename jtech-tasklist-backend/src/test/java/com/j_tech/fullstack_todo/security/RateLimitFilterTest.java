@@ -0,0 +1,83 @@
+package com.j_tech.fullstack_todo.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Over a real connector, so Tomcat's remote-IP handling runs: the test client is on
+ * loopback, a trusted proxy, and names the client in {@code X-Forwarded-For}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.rate-limit.login.capacity=3",
+        "app.rate-limit.login.refill-per-second=0.001",
+        "app.rate-limit.refresh.capacity=4",
+        "app.rate-limit.refresh.refill-per-second=0.001",
+        "app.rate-limit.refresh-user.capacity=2",
+        "app.rate-limit.refresh-user.refill-per-second=0.001"
+})
+class RateLimitFilterTest {
+
+    @Autowired TestRestTemplate http;
+
+    @Test
+    void anonymousClientsBehindTheProxyHaveTheirOwnBudgets() {
+        for (int i = 0; i < 3; i++) assertThat(login("a" + i + "@proxy.test", "203.0.113.1").getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(login("a3@proxy.test", "203.0.113.1").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        assertThat(login("b0@proxy.test", "203.0.113.2").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void refreshIsLimitedPerUserNotByTheLoginBudgetOfTheAddress() {
+        String token = login("r0@proxy.test", "198.51.100.7").getBody().get("refreshToken").asText();
+        String other = login("r1@proxy.test", "198.51.100.7").getBody().get("refreshToken").asText();
+        login("r2@proxy.test", "198.51.100.7");
+        assertThat(login("r3@proxy.test", "198.51.100.7").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        // The address is out of logins; each user still refreshes on their own budget.
+        ResponseEntity<JsonNode> first = refresh(token, "198.51.100.7");
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        token = first.getBody().get("refreshToken").asText();
+        ResponseEntity<JsonNode> second = refresh(token, "198.51.100.7");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(refresh(second.getBody().get("refreshToken").asText(), "198.51.100.7").getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(refresh(other, "198.51.100.7").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void forgedTokensSpendTheirAddressNotTheUserTheyName() {
+        JsonNode victim = login("v0@proxy.test", "198.51.100.20").getBody();
+        String prefix = victim.at("/user/id").asText() + ".";
+
+        for (int i = 0; i < 4; i++)
+            assertThat(refresh(prefix + "forged" + i, "198.51.100.21").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        // Another prefix does not reset the address's budget either.
+        assertThat(refresh("12345.forged", "198.51.100.21").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        assertThat(refresh(victim.get("refreshToken").asText(), "198.51.100.20").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private ResponseEntity<JsonNode> login(String email, String forwardedFor) {
+        return post("/api/auth/login", Map.of("username", email, "password", "x"), forwardedFor);
+    }
+
+    private ResponseEntity<JsonNode> refresh(String token, String forwardedFor) {
+        return post("/api/auth/refresh", Map.of("refreshToken", token), forwardedFor);
+    }
+
+    private ResponseEntity<JsonNode> post(String path, Map<String, String> body, String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        return http.exchange(path, HttpMethod.POST, new HttpEntity<>(body, headers), JsonNode.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.j_tech.fullstack_todo.security;
+
+import com.j_tech.fullstack_todo.security.RateLimiter.RouteClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Burst, refill and per-client isolation on a manual clock. */
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimiter limiter = new RateLimiter(new RateLimitProperties(true, Duration.ofMinutes(1), 0,
+            new RateLimitProperties.Limit(3, 1), null, null, null, null), registry, clock::get);
+
+    @Test
+    void burstThenRefill() {
+        for (int i = 0; i < 3; i++) assertThat(limiter.tryAcquire(RouteClass.READ, "sub:1")).isZero();
+
+        long wait = limiter.tryAcquire(RouteClass.READ, "sub:1");
+        assertThat(wait).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(registry.counter("http.server.requests.rate-limited", "class", "read").count()).isEqualTo(1);
+
+        clock.addAndGet(wait);
+        assertThat(limiter.tryAcquire(RouteClass.READ, "sub:1")).isZero();
+        assertThat(limiter.tryAcquire(RouteClass.READ, "sub:1")).isPositive();
+    }
+
+    @Test
+    void clientsAndRouteClassesHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire(RouteClass.READ, "sub:1");
+        assertThat(limiter.tryAcquire(RouteClass.READ, "sub:1")).isPositive();
+
+        assertThat(limiter.tryAcquire(RouteClass.READ, "sub:2")).isZero();
+        assertThat(limiter.tryAcquire(RouteClass.WRITE, "sub:1")).isZero();
+    }
+
+    @Test
+    void idleBucketRefillsToCapacityOnly() {
+        limiter.tryAcquire(RouteClass.READ, "ip:10.0.0.1");
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        for (int i = 0; i < 3; i++) assertThat(limiter.tryAcquire(RouteClass.READ, "ip:10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire(RouteClass.READ, "ip:10.0.0.1")).isPositive();
+    }
+}
@@ -0,0 +1,125 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.AgendaDay;
+import com.j_tech.fullstack_todo.dto.AgendaItem;
+import com.j_tech.fullstack_todo.dto.AgendaPage;
+import com.j_tech.fullstack_todo.dto.TaskCreateItem;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The agenda across two lists: open tasks only, both range ends inclusive, days in order,
+ * and per-day totals that stay whole when a page ends in the middle of a day.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AgendaTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 10);
+
+    @Autowired MockMvc mvc;
+    @Autowired UserRepository users;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+
+    private Long userId;
+
+    /** In [DAY, DAY+3]: two open on DAY, two open (and one done) on DAY+1, one on DAY+3. */
+    @BeforeEach
+    void seed() {
+        userId = newUser("agenda");
+        Long home = lists.create(userId, "Casa").id();
+        Long work = lists.create(userId, "Trabalho").id();
+        Long stranger = lists.create(newUser("other"), "Alheia").id();
+        tasks.addAll(List.of(
+                new TaskCreateItem(home, "antes", null, false, DAY.minusDays(1)),
+                new TaskCreateItem(home, "d0-casa", null, false, DAY),
+                new TaskCreateItem(work, "d0-trabalho", null, false, DAY),
+                new TaskCreateItem(work, "d1-a", null, false, DAY.plusDays(1)),
+                new TaskCreateItem(home, "d1-feita", null, true, DAY.plusDays(1)),
+                new TaskCreateItem(home, "d1-b", null, false, DAY.plusDays(1)),
+                new TaskCreateItem(work, "d3", null, false, DAY.plusDays(3)),
+                new TaskCreateItem(home, "depois", null, false, DAY.plusDays(4)),
+                new TaskCreateItem(home, "sem-data", null, false, null),
+                new TaskCreateItem(stranger, "de-outro", null, false, DAY)));
+    }
+
+    @Test
+    void groupsOpenTasksByDayWithinInclusiveBounds() {
+        AgendaPage page = lists.agenda(userId, DAY, DAY.plusDays(3), null, 50);
+
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.days()).extracting(AgendaDay::date).containsExactly(DAY, DAY.plusDays(1), DAY.plusDays(3));
+        assertThat(page.days()).extracting(AgendaDay::count).containsExactly(2L, 2L, 1L);
+        assertThat(titles(page.days().get(0))).containsExactlyInAnyOrder("d0-casa", "d0-trabalho");
+        assertThat(page.days().get(0).tasks()).extracting(AgendaItem::listName).containsExactlyInAnyOrder("Casa", "Trabalho");
+        assertThat(titles(page.days().get(1))).containsExactly("d1-a", "d1-b");
+
+        AgendaPage single = lists.agenda(userId, DAY.plusDays(1), DAY.plusDays(1), null, 50);
+        assertThat(single.days()).extracting(AgendaDay::date).containsExactly(DAY.plusDays(1));
+        assertThat(lists.agenda(userId, DAY.plusDays(2), DAY.plusDays(2), null, 50).days()).isEmpty();
+    }
+
+    @Test
+    void pageEndingInsideADayKeepsThatDaysFullCount() {
+        AgendaPage first = lists.agenda(userId, DAY, DAY.plusDays(3), null, 3);
+        assertThat(first.days()).extracting(AgendaDay::date).containsExactly(DAY, DAY.plusDays(1));
+        assertThat(first.days().get(1).tasks()).hasSize(1);
+        assertThat(first.days().get(1).count()).isEqualTo(2);
+        assertThat(first.nextCursor()).isNotNull();
+
+        AgendaPage second = lists.agenda(userId, DAY, DAY.plusDays(3), first.nextCursor(), 3);
+        assertThat(second.days()).extracting(AgendaDay::date).containsExactly(DAY.plusDays(1), DAY.plusDays(3));
+        assertThat(second.days().get(0).count()).isEqualTo(2);
+        assertThat(second.nextCursor()).isNull();
+
+        List<String> seen = new ArrayList<>();
+        for (AgendaPage p : List.of(first, second)) p.days().forEach(d -> seen.addAll(titles(d)));
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void rangeIsValidated() {
+        assertThatThrownBy(() -> lists.agenda(userId, DAY, DAY.minusDays(1), null, 50))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Data inicial após a final");
+        assertThatThrownBy(() -> lists.agenda(userId, DAY, DAY.plusDays(ListService.MAX_AGENDA_DAYS + 1), null, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(lists.agenda(userId, DAY.minusDays(1), DAY.minusDays(1).plusDays(ListService.MAX_AGENDA_DAYS), null, 50)
+                .days()).extracting(AgendaDay::count).containsExactly(1L, 2L, 2L, 1L, 1L);
+        assertThatThrownBy(() -> lists.agenda(userId, DAY, DAY, "not-a-cursor", 50))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Cursor inválido");
+    }
+
+    @Test
+    void invalidRangeIsABadRequest() throws Exception {
+        mvc.perform(get("/api/agenda").param("userId", userId.toString())
+                        .param("from", DAY.toString()).param("to", DAY.minusDays(1).toString()).with(user("agenda")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Data inicial após a final"));
+    }
+
+    private Long newUser(String name) {
+        return users.save(User.builder().name(name).email(name + "-" + System.nanoTime() + "@test").build()).getId();
+    }
+
+    private static List<String> titles(AgendaDay day) {
+        return day.tasks().stream().map(AgendaItem::title).toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class ExportServiceTest {
+
+    @Autowired ExportService exports;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+    @Autowired UserRepository users;
+
+    @Test
+    void exportThenImportRestoresListsAndTasksInBatches() throws Exception {
+        Long source = users.save(User.builder().name("src").email("src@export.test").build()).getId();
+        Long target = users.save(User.builder().name("dst").email("dst@export.test").build()).getId();
+        Long big = lists.create(source, "Grande").id();
+        Long small = lists.create(source, "Pequena").id();
+        lists.create(source, "Vazia");
+        List<TaskCreateItem> items = new ArrayList<>();
+        for (int i = 0; i < 700; i++) items.add(new TaskCreateItem(big, "t" + i, "d" + i, i % 3 == 0, null));
+        tasks.addAll(items);
+        tasks.addAll(List.of(new TaskCreateItem(small, "com prazo", null, false, LocalDate.of(2026, 12, 24))));
+        lists.create(target, "Pequena");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exports.export(source, out);
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertThat(ndjson.lines()).hasSize(3 + 701);
+        assertThat(ndjson.lines().limit(3)).allMatch(l -> l.startsWith("{\"type\":\"list\""));
+
+        List<ImportProgress> reports = new ArrayList<>();
+        exports.importFrom(target, new ByteArrayInputStream(out.toByteArray()), reports::add);
+
+        // 704 records in batches of 500: one progress report, then done. "Pequena" already existed.
+        assertThat(reports).extracting(ImportProgress::type).containsExactly("progress", "done");
+        assertThat(reports.get(1)).isEqualTo(ImportProgress.done(2, 701, 0));
+        assertThat(lists.findAll(target)).extracting(ListDTO::name, ListDTO::taskCount, ListDTO::doneCount)
+                .containsExactlyInAnyOrder(
+                        tuple("Grande", 700L, 234L),
+                        tuple("Pequena", 1L, 0L),
+                        tuple("Vazia", 0L, 0L));
+
+        List<ImportProgress> again = new ArrayList<>();
+        exports.importFrom(target, new ByteArrayInputStream(out.toByteArray()), again::add);
+        assertThat(again.get(again.size() - 1)).isEqualTo(ImportProgress.done(0, 0, 701));
+    }
+
+    @Test
+    void exportHoldsNoTransactionWhileWriting() throws Exception {
+        Long userId = users.save(User.builder().name("pages").email("pages@export.test").build()).getId();
+        Long listId = lists.create(userId, "Paginada").id();
+        List<TaskCreateItem> items = new ArrayList<>();
+        for (int i = 0; i < ExportService.EXPORT_PAGE_SIZE + 10; i++) items.add(new TaskCreateItem(listId, "p" + i, null));
+        tasks.addAll(items);
+
+        List<Boolean> inTransaction = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+                super.write(b, off, len);
+            }
+        };
+        exports.export(userId, out);
+
+        assertThat(inTransaction).isNotEmpty().containsOnly(false);
+        // Pages resume in (list, rank, id) order without gaps or repeats.
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().skip(1).map(l -> l.replaceAll(".*\"title\":\"(p\\d+)\".*", "$1")))
+                .containsExactlyElementsOf(items.stream().map(TaskCreateItem::title).toList());
+    }
+
+    @Test
+    void malformedLineStopsImportWithErrorReport() {
+        Long target = users.save(User.builder().name("bad").email("bad@export.test").build()).getId();
+        byte[] body = "{\"type\":\"list\",\"id\":1,\"name\":\"x\"}\n{nope\n".getBytes(StandardCharsets.UTF_8);
+        List<ImportProgress> reports = new ArrayList<>();
+        exports.importFrom(target, new ByteArrayInputStream(body), reports::add);
+        assertThat(reports).singleElement().extracting(ImportProgress::type).isEqualTo("error");
+        assertThat(lists.findAll(target)).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyService service = new IdempotencyService(Duration.ofMinutes(1), 1000,
+            Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<IdempotencyService.Result<String>> first = pool.submit(() ->
+                    service.execute("u1", "task.add", "k1", List.of(1L, "a"), () -> {
+                        started.countDown();
+                        await(release);
+                        return "task-" + executions.incrementAndGet();
+                    }));
+            started.await();
+            List<Future<IdempotencyService.Result<String>>> retries = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                retries.add(pool.submit(() -> service.execute("u1", "task.add", "k1", List.of(1L, "a"),
+                        () -> "task-" + executions.incrementAndGet())));
+            }
+            release.countDown();
+
+            assertThat(first.get().body()).isEqualTo("task-1");
+            assertThat(first.get().replayed()).isFalse();
+            for (var r : retries) {
+                assertThat(r.get().body()).isEqualTo("task-1");
+                assertThat(r.get().replayed()).isTrue();
+            }
+            assertThat(executions).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyIsScopedAndBoundToThePayload() {
+        service.execute("u1", "list.create", "k", List.of(1L, "Casa"), () -> "a");
+
+        assertThat(service.execute("u2", "list.create", "k", List.of(1L, "Casa"), () -> "b").body()).isEqualTo("b");
+        assertThatThrownBy(() -> service.execute("u1", "list.create", "k", List.of(1L, "Outra"), () -> "c"))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void failuresAreNotStored() {
+        assertThatThrownBy(() -> service.execute("u1", "task.add", "k", "p", () -> {
+            throw new IllegalStateException("duplicado");
+        })).isInstanceOf(IllegalStateException.class);
+
+        IdempotencyService.Result<String> retry = service.execute("u1", "task.add", "k", "p", () -> "ok");
+        assertThat(retry.body()).isEqualTo("ok");
+        assertThat(retry.replayed()).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
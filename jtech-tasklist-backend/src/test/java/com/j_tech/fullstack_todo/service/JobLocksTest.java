@@ -0,0 +1,76 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.repository.JobLockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Other instances are played by rows with another owner, or by threads racing for a first lease. */
+@SpringBootTest(properties = "app.jobs.lock-at-least=PT0S")
+class JobLocksTest {
+
+    @Autowired JobLocks jobLocks;
+    @Autowired JobLockRepository locks;
+    @Autowired TransactionTemplate tx;
+
+    @Test
+    void leaseHeldElsewhereSkipsTheRunUntilItExpires() {
+        LocalDateTime now = LocalDateTime.now();
+        tx.executeWithoutResult(s -> locks.create("held", "other-instance", now.plusHours(1)));
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(jobLocks.runExclusively("held", Duration.ofHours(1), runs::incrementAndGet)).isFalse();
+        assertThat(runs).hasValue(0);
+
+        // The other instance died mid-run: its lease lapses after lock-at-most.
+        tx.executeWithoutResult(s -> locks.claim("held", "other-instance", now.plusHours(2), now.minusSeconds(1)));
+        assertThat(jobLocks.runExclusively("held", Duration.ofHours(1), runs::incrementAndGet)).isTrue();
+        assertThat(runs).hasValue(1);
+        // Released at the end, so the next run can start.
+        assertThat(jobLocks.runExclusively("held", Duration.ofHours(1), runs::incrementAndGet)).isTrue();
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void concurrentFirstRunsExecuteOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> racers = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return jobLocks.runExclusively("race", Duration.ofMinutes(5), () -> {
+                        runs.incrementAndGet();
+                        await(release);
+                    });
+                }))
+                .toList();
+        start.countDown();
+        Thread.sleep(500);
+        release.countDown();
+
+        List<Boolean> ran = racers.stream().map(f -> f.orTimeout(5, TimeUnit.SECONDS).join()).toList();
+        assertThat(ran).containsOnlyOnce(true);
+        assertThat(runs).hasValue(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.exception.ConflictException;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.archive.enabled=false")
+class ListDeleteAndArchiveTest {
+
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+    @Autowired ArchiveService archive;
+    @Autowired UserRepository users;
+    @Autowired TaskRepository taskRepository;
+    @Autowired TodoListRepository listRepository;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void deleteUsesBulkStatementsWithoutLoadingTasks() {
+        Long userId = users.save(User.builder().name("del").email("del@test").build()).getId();
+        Long listId = seed(userId, "apagar", 300, 0);
+
+        assertThatThrownBy(() -> lists.delete(listId, false)).isInstanceOf(ConflictException.class);
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        lists.delete(listId, true);
+
+        // three bulk DELETEs: force skips the exists check, and the owner lookup is a
+        // query-cache hit left by the first attempt
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(listRepository.existsById(listId)).isFalse();
+        assertThat(taskRepository.existsByListId(listId)).isFalse();
+    }
+
+    @Test
+    void archivesCompletedTasksInChunksAndKeepsThemQueryable() {
+        Long userId = users.save(User.builder().name("arq").email("arq@test").build()).getId();
+        Long listId = seed(userId, "arquivar", 2500, 2);
+        long versionBefore = lists.version(listId);
+
+        int moved = archive.archiveCompletedBefore(LocalDateTime.now().plusSeconds(1));
+
+        assertThat(moved).isEqualTo(1250);
+        assertThat(lists.findAll(userId)).singleElement()
+                .satisfies(l -> assertThat(l.taskCount()).isEqualTo(1250))
+                .satisfies(l -> assertThat(l.doneCount()).isZero())
+                .satisfies(l -> assertThat(l.version()).isGreaterThan(versionBefore));
+
+        List<ArchivedTaskDTO> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            ArchivePage page = archive.page(listId, cursor, 500);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(all).hasSize(1250).allSatisfy(a -> assertThat(a.completedAt()).isNotNull());
+
+        assertThat(archive.archiveCompletedBefore(LocalDateTime.now().plusSeconds(1))).isZero();
+        lists.delete(listId, true);
+        assertThat(archive.page(listId, null, 10).items()).isEmpty();
+    }
+
+    /** @param doneEvery every n-th task is created done (0: none) */
+    private Long seed(Long userId, String name, int count, int doneEvery) {
+        Long listId = lists.create(userId, name).id();
+        List<TaskCreateItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new TaskCreateItem(listId, "t" + i, null, doneEvery > 0 && i % doneEvery == 0, null));
+            if (items.size() == TaskService.MAX_BATCH_SIZE) {
+                tasks.addAll(items);
+                items = new ArrayList<>();
+            }
+        }
+        if (!items.isEmpty()) tasks.addAll(items);
+        return listId;
+    }
+}
@@ -0,0 +1,93 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.model.*;
+import com.j_tech.fullstack_todo.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListSummaryQueryCountTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired UserRepository users;
+    @Autowired TodoListRepository lists;
+    @Autowired TaskRepository tasks;
+    @Autowired EntityManagerFactory emf;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        User u = users.save(User.builder().name("counter").email("counter-" + System.nanoTime() + "@test").build());
+        userId = u.getId();
+        for (int i = 0; i < 50; i++) {
+            TodoList l = lists.save(TodoList.builder().user(u).name("list-" + i).build());
+            for (int j = 0; j < 3; j++) {
+                tasks.save(Task.builder().list(l).title("task-" + j).done(j == 0).rank(String.valueOf(j + 1)).build());
+            }
+        }
+    }
+
+    @Test
+    void listSummariesUseConstantStatementsRegardlessOfListCount() throws Exception {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        String etag = mvc.perform(get("/api/lists").param("userId", userId.toString()).with(user("counter")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(50))
+                .andExpect(jsonPath("$[0].taskCount").value(3))
+                .andExpect(jsonPath("$[0].doneCount").value(1))
+                .andExpect(jsonPath("$[0].openCount").value(2))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // ETag version lookup + one aggregate summary query.
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+
+        stats.clear();
+        mvc.perform(get("/api/lists").param("userId", userId.toString()).header("If-None-Match", etag)
+                        .with(user("counter")))
+                .andExpect(status().isNotModified());
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listsWithTasksUseConstantStatementsRegardlessOfListCount() throws Exception {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        MvcResult started = mvc.perform(get("/api/lists").param("userId", userId.toString())
+                        .param("include", "tasks").param("limit", "1").with(user("counter")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(50))
+                .andExpect(jsonPath("$[0].openCount").value(2))
+                .andExpect(jsonPath("$[0].tasks.length()").value(1))
+                .andExpect(jsonPath("$[0].tasks[0].title").value("task-1"))
+                .andExpect(jsonPath("$[49].tasks[0].title").value("task-1"));
+
+        // ETag version lookup + summaries + one top-N query for all 50 lists.
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,45 @@
+package com.j_tech.fullstack_todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankKeysTest {
+
+    @Test
+    void appendsKeepTheirLengthAndSortInOrder() {
+        List<String> keys = new ArrayList<>();
+        String last = null;
+        for (int i = 0; i < 5000; i++) keys.add(last = RankKeys.after(last));
+        assertThat(keys).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).allSatisfy(k -> assertThat(k).hasSizeLessThanOrEqualTo(RankKeys.MIN_WIDTH).doesNotEndWith("0"));
+    }
+
+    @Test
+    void alwaysFindsRoomBetweenTwoKeys() {
+        String lo = "i", hi = "i001";
+        for (int i = 0; i < 200; i++) {
+            String mid = RankKeys.between(lo, hi);
+            assertThat(mid).isGreaterThan(lo).isLessThan(hi).doesNotEndWith("0");
+            if (i % 2 == 0) lo = mid; else hi = mid;
+        }
+        String top = "1";
+        for (int i = 0; i < 50; i++) {
+            String first = RankKeys.between(null, top);
+            assertThat(first).isLessThan(top).doesNotEndWith("0");
+            top = first;
+        }
+        assertThat(RankKeys.between("k", "k")).isNull();
+    }
+
+    @Test
+    void spreadLeavesEqualGapsAndRoomAtTheEnd() {
+        List<String> keys = RankKeys.spread(10_000);
+        assertThat(keys).hasSize(10_000).isSorted().doesNotHaveDuplicates();
+        assertThat(keys).allSatisfy(k -> assertThat(k.length()).isLessThanOrEqualTo(RankKeys.REBALANCE_LENGTH));
+        String after = RankKeys.after(keys.get(keys.size() - 1));
+        assertThat(after).isGreaterThan(keys.get(keys.size() - 1)).hasSizeLessThanOrEqualTo(keys.get(0).length() + 1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.exception.PreconditionFailedException;
+import com.j_tech.fullstack_todo.model.TodoList;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.TodoListRepository;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Reference lookups hit the second-level and query caches; version bumps evict only their list. */
+@SpringBootTest(properties = "app.cache.read.type=none")
+class SecondLevelCacheTest {
+
+    @Autowired TaskService taskService;
+    @Autowired ListService listService;
+    @Autowired TodoListRepository lists;
+    @Autowired UserRepository users;
+    @Autowired EntityManagerFactory emf;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void listLookupsAreServedFromCacheAndBumpsEvictPrecisely() {
+        Long userId = users.save(User.builder().name("l2").email("l2-" + System.nanoTime() + "@test").build()).getId();
+        Long busy = listService.create(userId, "Ocupada").id();
+        Long idle = listService.create(userId, "Parada").id();
+        lists.findById(busy).orElseThrow();
+        lists.findById(idle).orElseThrow();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        taskService.add(busy, "t1", null);
+        stats.clear();
+        taskService.add(busy, "t2", null);
+        // The owner lookup survives the first add's version bump.
+        assertThat(stats.getQueryCacheHitCount()).isEqualTo(1);
+
+        // The bump evicted the busy list only; the reload sees the new version.
+        assertThat(emf.getCache().contains(TodoList.class, busy)).isFalse();
+        assertThat(emf.getCache().contains(TodoList.class, idle)).isTrue();
+        assertThat(lists.findById(busy).orElseThrow().getVersion()).isEqualTo(listService.version(busy));
+
+        stats.clear();
+        listService.rename(busy, "Renomeada");
+        assertThat(lists.findById(busy).orElseThrow().getName()).isEqualTo("Renomeada");
+        assertThat(stats.getDomainDataRegionStatistics("todo_lists").getHitCount()).isPositive();
+    }
+
+    /** Plain JDBC stands in for another instance: its writes evict nothing from this node's cache. */
+    @Test
+    void writesDoNotTrustEntriesAnotherInstanceMadeStale() {
+        Long userId = users.save(User.builder().name("l2s").email("l2s-" + System.nanoTime() + "@test").build()).getId();
+        Long listId = listService.create(userId, "Antiga").id();
+        taskService.add(listId, "t1", null);
+        long cached = lists.findById(listId).orElseThrow().getVersion();
+        jdbc.update("update todo_lists set version = version + 1 where id = ?", listId);
+        assertThat(lists.findById(listId).orElseThrow().getVersion()).as("stale L2 entry").isEqualTo(cached);
+
+        assertThatThrownBy(() -> listService.rename(listId, "Nova", cached)).isInstanceOf(PreconditionFailedException.class);
+        assertThat(listService.rename(listId, "Nova", cached + 1).name()).isEqualTo("Nova");
+
+        jdbc.update("delete from tasks where list_id = ?", listId);
+        jdbc.update("delete from todo_lists where id = ?", listId);
+        assertThatThrownBy(() -> taskService.add(listId, "t2", null)).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> listService.delete(listId, true)).isInstanceOf(NoSuchElementException.class);
+    }
+}
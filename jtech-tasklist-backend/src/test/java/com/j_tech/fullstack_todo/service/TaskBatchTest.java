@@ -0,0 +1,155 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.dto.TaskCreateItem;
+import com.j_tech.fullstack_todo.dto.TaskUpdateItem;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.TaskRepository;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The /api/tasks/batch endpoints: per-item statuses, and statements that grow with the
+ * number of JDBC batches (hibernate.jdbc.batch_size=50), not with the number of items.
+ * Statements are counted as Hibernate prepares them; a batch is prepared at most once.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.j_tech.fullstack_todo.service.TaskBatchTest$StatementCounter")
+@AutoConfigureMockMvc
+class TaskBatchTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper mapper;
+    @Autowired UserRepository users;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+    @Autowired TaskRepository taskRepository;
+
+    @Test
+    void createReportsEachItemAndInsertsInJdbcBatches() throws Exception {
+        Long userId = users.save(User.builder().name("batch").email("batch-" + System.nanoTime() + "@test").build()).getId();
+        Long listId = lists.create(userId, "Lote").id();
+        tasks.add(listId, "Existente", null);
+
+        List<TaskCreateItem> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) items.add(new TaskCreateItem(listId, "Item " + i, null));
+        items.add(new TaskCreateItem(listId, "  ", null));
+        items.add(new TaskCreateItem(-1L, "Sem lista", null));
+        items.add(new TaskCreateItem(listId, "Existente", null));
+        items.add(new TaskCreateItem(listId, "Item 0", null));
+
+        StatementCounter.reset();
+        JsonNode result = send(post("/api/tasks/batch"), items);
+
+        assertThat(result.get("succeeded").asInt()).isEqualTo(120);
+        assertThat(result.get("failed").asInt()).isEqualTo(4);
+        assertThat(statuses(result).subList(120, 124)).containsExactly("INVALID", "NOT_FOUND", "DUPLICATE", "DUPLICATE");
+        assertThat(result.at("/items/0/task/title").asText()).isEqualTo("Item 0");
+        // 120 rows in batches of 50; unbatched, each row would be prepared on its own.
+        assertThat(StatementCounter.count("insert into tasks")).isBetween(1, 3);
+        assertThat(StatementCounter.total()).isLessThanOrEqualTo(15);
+        assertThat(taskRepository.existsByListIdAndTitle(listId, "Item 119")).isTrue();
+    }
+
+    @Test
+    void updateAndDeleteReportEachItemWithStatementsPerBatchNotPerItem() throws Exception {
+        Long userId = users.save(User.builder().name("batch").email("batch-" + System.nanoTime() + "@test").build()).getId();
+        Long listId = lists.create(userId, "Lote").id();
+        List<TaskCreateItem> seed = new ArrayList<>();
+        for (int i = 0; i < 100; i++) seed.add(new TaskCreateItem(listId, "Tarefa " + i, null));
+        List<Long> ids = tasks.addAll(seed).items().stream().map(r -> r.task().id()).toList();
+
+        List<TaskUpdateItem> updates = new ArrayList<>();
+        for (Long id : ids) updates.add(new TaskUpdateItem(id, null, "feito", true));
+        updates.add(new TaskUpdateItem(-1L, null, null, true));
+        updates.add(new TaskUpdateItem(ids.get(0), "Tarefa 1", null, null));
+
+        StatementCounter.reset();
+        JsonNode updated = send(put("/api/tasks/batch"), updates);
+        assertThat(updated.get("succeeded").asInt()).isEqualTo(100);
+        assertThat(statuses(updated).subList(100, 102)).containsExactly("NOT_FOUND", "DUPLICATE");
+        // 100 task rows in batches of 50, plus the list's version bump.
+        assertThat(StatementCounter.count("update tasks")).isBetween(1, 2);
+        assertThat(StatementCounter.total()).isLessThanOrEqualTo(10);
+        assertThat(taskRepository.findById(ids.get(99)).orElseThrow().isDone()).isTrue();
+
+        List<Long> toDelete = new ArrayList<>(ids.subList(0, 60));
+        toDelete.add(-1L);
+        StatementCounter.reset();
+        JsonNode deleted = send(delete("/api/tasks/batch"), toDelete);
+        assertThat(deleted.get("succeeded").asInt()).isEqualTo(60);
+        assertThat(statuses(deleted).get(60)).isEqualTo("NOT_FOUND");
+        assertThat(StatementCounter.count("delete from tasks")).isEqualTo(1);
+        assertThat(taskRepository.existsByListIdAndTitle(listId, "Tarefa 0")).isFalse();
+        assertThat(taskRepository.existsByListIdAndTitle(listId, "Tarefa 60")).isTrue();
+    }
+
+    @Test
+    void oversizedBatchIsABadRequest() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= TaskService.MAX_BATCH_SIZE; i++) ids.add(i);
+        mvc.perform(delete("/api/tasks/batch").with(user("batch"))
+                        .contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsBytes(ids)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Lote excede " + TaskService.MAX_BATCH_SIZE + " itens"));
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder req, Object body) throws Exception {
+        String json = mvc.perform(req.with(user("batch")).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsBytes(body)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(json);
+    }
+
+    private static List<String> statuses(JsonNode result) {
+        List<String> out = new ArrayList<>();
+        result.get("items").forEach(i -> out.add(i.get("status").asText()));
+        return out;
+    }
+
+    public static class StatementCounter implements StatementInspector {
+        static final Map<String, AtomicInteger> BY_PREFIX = new ConcurrentHashMap<>();
+        static final AtomicInteger TOTAL = new AtomicInteger();
+
+        static void reset() {
+            BY_PREFIX.clear();
+            TOTAL.set(0);
+        }
+
+        static int count(String prefix) {
+            return BY_PREFIX.entrySet().stream().filter(e -> e.getKey().startsWith(prefix))
+                    .mapToInt(e -> e.getValue().get()).sum();
+        }
+
+        static int total() {
+            return TOTAL.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String s = sql.strip().toLowerCase(Locale.ROOT);
+            BY_PREFIX.computeIfAbsent(s.substring(0, Math.min(s.length(), 40)), k -> new AtomicInteger()).incrementAndGet();
+            TOTAL.incrementAndGet();
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.TaskCreateItem;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** If-Match on task writes is checked against the list's version, so it is list-wide. */
+@SpringBootTest(properties = "app.cache.read.type=none")
+@AutoConfigureMockMvc
+class TaskIfMatchTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired UserRepository users;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+
+    @Test
+    void editToAnotherTaskMakesThePagesTagStale() throws Exception {
+        Long userId = users.save(User.builder().name("match").email("match-" + System.nanoTime() + "@test").build()).getId();
+        Long listId = lists.create(userId, "Concorrente").id();
+        List<Long> ids = tasks.addAll(List.of(new TaskCreateItem(listId, "a", null), new TaskCreateItem(listId, "b", null)))
+                .items().stream().map(r -> r.task().id()).toList();
+        String pageTag = mvc.perform(get("/api/lists/{id}/tasks", listId).with(user("match")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String written = mvc.perform(put("/api/tasks/{id}", ids.get(0)).param("title", "a2")
+                        .header(HttpHeaders.IF_MATCH, pageTag).with(user("match")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(written).isNotEqualTo(pageTag);
+
+        // Same page, different task: rejected because the list moved on.
+        mvc.perform(put("/api/tasks/{id}", ids.get(1)).param("title", "b2")
+                        .header(HttpHeaders.IF_MATCH, pageTag).with(user("match")))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("PRECONDITION_FAILED"));
+
+        String last = mvc.perform(put("/api/tasks/{id}", ids.get(1)).param("title", "b2")
+                        .header(HttpHeaders.IF_MATCH, written).with(user("match")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("b2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(get("/api/lists/{id}/tasks", listId).with(user("match")))
+                .andExpect(header().string(HttpHeaders.ETAG, last));
+    }
+}
@@ -0,0 +1,105 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TaskOrderingTest {
+
+    private static final TaskFilter ALL = new TaskFilter(null, null, null, false);
+
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+    @Autowired TaskRankRebalancer rebalancer;
+    @Autowired UserRepository users;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void moveRewritesOnlyTheMovedTask() {
+        Long listId = newList("ordem");
+        List<Long> ids = add(listId, "a", "b", "c", "d");
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        tasks.move(ids.get(3), ids.get(0), null);
+        assertThat(stats.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(titles(listId)).containsExactly("a", "d", "b", "c");
+
+        tasks.move(ids.get(2), null, null);
+        tasks.move(ids.get(0), ids.get(1), null);
+        assertThat(titles(listId)).containsExactly("c", "d", "b", "a");
+        assertThat(lists.tasks(listId, new TaskFilter(null, null, null, true), null, 10).items())
+                .extracting(TaskDTO::title).containsExactly("a", "b", "d", "c");
+
+        tasks.add(listId, "e", null);
+        assertThat(titles(listId)).endsWith("e");
+
+        assertThatThrownBy(() -> tasks.move(ids.get(0), ids.get(0), null)).isInstanceOf(IllegalArgumentException.class);
+        Long other = newList("outra");
+        Long foreign = add(other, "x").get(0);
+        assertThatThrownBy(() -> tasks.move(ids.get(0), foreign, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pagesFollowTheManualOrderAndRebalancingKeepsIt() {
+        Long listId = newList("paginas");
+        List<Long> ids = add(listId, "t0", "t1", "t2", "t3", "t4", "t5", "t6", "t7", "t8", "t9");
+        // Keep moving into the same gap until the keys need a rebalance.
+        Long anchor = ids.get(0);
+        for (int i = 9; i >= 1; i--) {
+            tasks.move(ids.get(i), anchor, null);
+        }
+        for (int i = 0; i < 40; i++) tasks.move(ids.get(i % 2 == 0 ? 1 : 2), anchor, null);
+        List<String> before = titles(listId);
+        assertThat(ranks(listId)).anySatisfy(r -> assertThat(r.length()).isGreaterThan(RankKeys.REBALANCE_LENGTH));
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = lists.tasks(listId, ALL, cursor, 3);
+            page.items().forEach(t -> paged.add(t.title()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(paged).isEqualTo(before);
+
+        rebalancer.rebalanceQueued();
+        assertThat(titles(listId)).isEqualTo(before);
+        assertThat(ranks(listId)).allSatisfy(r -> assertThat(r.length()).isLessThanOrEqualTo(RankKeys.MIN_WIDTH));
+
+        // An id-only cursor belongs to archive pages; a list page rejects it.
+        String archiveCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("t1:" + ids.get(before.indexOf("t5"))).getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> lists.tasks(listId, ALL, archiveCursor, 100))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Cursor inválido");
+    }
+
+    private Long newList(String name) {
+        Long userId = users.save(User.builder().name(name).email(name + "-" + System.nanoTime() + "@test").build()).getId();
+        return lists.create(userId, name).id();
+    }
+
+    private List<Long> add(Long listId, String... titles) {
+        return Arrays.stream(titles).map(t -> tasks.add(listId, t, null).id()).toList();
+    }
+
+    private List<String> titles(Long listId) {
+        return lists.tasks(listId, ALL, null, 100).items().stream().map(TaskDTO::title).toList();
+    }
+
+    private List<String> ranks(Long listId) {
+        return lists.tasks(listId, ALL, null, 100).items().stream().map(TaskDTO::rank).toList();
+    }
+}
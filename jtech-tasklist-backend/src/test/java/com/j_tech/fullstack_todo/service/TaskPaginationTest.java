@@ -0,0 +1,146 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.j_tech.fullstack_todo.controller.ListController;
+import com.j_tech.fullstack_todo.dto.TaskCreateItem;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/lists/{id}/tasks walked page by page through X-Next-Cursor: every task once,
+ * in rank order either way, filters applied before paging, and a constant number of
+ * statements per page (no COUNT, no OFFSET scan).
+ */
+@SpringBootTest(properties = "app.cache.read.type=none")
+@AutoConfigureMockMvc
+class TaskPaginationTest {
+
+    private static final int TASKS = 25;
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper mapper;
+    @Autowired UserRepository users;
+    @Autowired ListService lists;
+    @Autowired TaskService tasks;
+    @Autowired EntityManagerFactory emf;
+
+    private Long listId;
+    private List<String> titles;
+
+    /** Task i is done when i % 3 == 0 and due DAY + (i % 5) days. */
+    @BeforeEach
+    void seed() {
+        Long userId = users.save(User.builder().name("pages").email("pages-" + System.nanoTime() + "@test").build()).getId();
+        listId = lists.create(userId, "Paginada").id();
+        List<TaskCreateItem> items = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++)
+            items.add(new TaskCreateItem(listId, String.format("t%02d", i), null, i % 3 == 0, DAY.plusDays(i % 5)));
+        tasks.addAll(items);
+        titles = items.stream().map(TaskCreateItem::title).toList();
+    }
+
+    @Test
+    void pagesCoverEveryTaskOnceInRankOrderWithConstantStatements() throws Exception {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            stats.clear();
+            MockHttpServletResponse res = page(cursor, "limit", "10");
+            // ETag version lookup + one keyset query fetching limit + 1 rows.
+            assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+            seen.addAll(titlesOf(res));
+            cursor = res.getHeader(ListController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(titles);
+
+        List<String> descending = walk("sort", "desc", "limit", "10");
+        List<String> reversed = new ArrayList<>(titles);
+        Collections.reverse(reversed);
+        assertThat(descending).containsExactlyElementsOf(reversed);
+    }
+
+    @Test
+    void filtersApplyBeforePagingAndDueBoundsAreInclusive() throws Exception {
+        assertThat(walk("done", "true", "limit", "2"))
+                .containsExactly("t00", "t03", "t06", "t09", "t12", "t15", "t18", "t21", "t24");
+        // Due DAY+1 .. DAY+2 is i % 5 in {1, 2}.
+        assertThat(walk("dueFrom", DAY.plusDays(1).toString(), "dueTo", DAY.plusDays(2).toString(), "limit", "3"))
+                .containsExactly("t01", "t02", "t06", "t07", "t11", "t12", "t16", "t17", "t21", "t22");
+        assertThat(walk("done", "false", "dueFrom", DAY.plusDays(4).toString(), "limit", "100"))
+                .containsExactly("t04", "t14", "t19");
+    }
+
+    @Test
+    void unchangedPageIsAnsweredFromTheVersionAlone() throws Exception {
+        MockHttpServletResponse first = page(null, "limit", "10");
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/api/lists/{id}/tasks", listId).param("limit", "10")
+                        .header("If-None-Match", first.getHeader("ETag")).with(user("pages")))
+                .andExpect(status().isNotModified());
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        // The second is an archive page's id-only cursor.
+        for (String cursor : List.of("not-a-cursor", "dDE6MQ")) {
+            mvc.perform(get("/api/lists/{id}/tasks", listId).param("cursor", cursor).with(user("pages")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Cursor inválido"));
+        }
+    }
+
+    private List<String> walk(String... params) throws Exception {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletResponse res = page(cursor, params);
+            seen.addAll(titlesOf(res));
+            cursor = res.getHeader(ListController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private MockHttpServletResponse page(String cursor, String... params) throws Exception {
+        MockHttpServletRequestBuilder req = get("/api/lists/{id}/tasks", listId).with(user("pages"));
+        for (int i = 0; i < params.length; i += 2) req.param(params[i], params[i + 1]);
+        if (cursor != null) req.param("cursor", cursor);
+        return mvc.perform(req).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private List<String> titlesOf(MockHttpServletResponse res) throws Exception {
+        List<String> out = new ArrayList<>();
+        for (JsonNode t : mapper.readTree(res.getContentAsString())) out.add(t.get("title").asText());
+        return out;
+    }
+}
@@ -0,0 +1,239 @@
+package com.j_tech.fullstack_todo.service;
+
+import com.j_tech.fullstack_todo.dto.*;
+import com.j_tech.fullstack_todo.exception.ConflictException;
+import com.j_tech.fullstack_todo.model.Task;
+import com.j_tech.fullstack_todo.model.User;
+import com.j_tech.fullstack_todo.repository.TaskRepository;
+import com.j_tech.fullstack_todo.repository.UserRepository;
+import com.j_tech.fullstack_todo.search.TaskSearchService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Toggle-heavy workload (every task toggled and its description autosaved, 21 rounds)
+ * run once through the write-behind buffer and once synchronously, counting the UPDATE
+ * statements each sends to the database; plus synchronous writes racing a flush.
+ */
+@SpringBootTest(properties = {
+        "app.write-behind.enabled=true",
+        "app.write-behind.window=PT0.5S",
+        "app.write-behind.flush-interval=PT0.05S",
+        "app.cache.read.type=none",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.j_tech.fullstack_todo.service.TaskWriteBehindTest$UpdateCounter"
+})
+class TaskWriteBehindTest {
+
+    private static final int TASKS = 20;
+    private static final int ROUNDS = 21;
+
+    @Autowired TaskService taskService;
+    @Autowired ListService listService;
+    @Autowired TaskWriteBuffer buffer;
+    @Autowired TaskRepository tasks;
+    @Autowired UserRepository users;
+    @Autowired TransactionTemplate tx;
+    @Autowired TaskSearchService search;
+    @Autowired ExportService exports;
+
+    @Test
+    void coalescesToggleBurstsIntoFewUpdates() throws Exception {
+        Long userId = users.save(User.builder().name("wb").email("wb@test").build()).getId();
+
+        long buffered = runWorkload(userId, "buffered");
+        ReflectionTestUtils.setField(buffer, "enabled", false);
+        long direct = runWorkload(userId, "direct");
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+
+        // Direct: a task UPDATE plus a list version bump per call (840 calls -> 1680).
+        assertThat(direct).isEqualTo(2L * TASKS * ROUNDS * 2);
+        assertThat(buffered)
+                .as("UPDATE statements: %d buffered vs %d direct", buffered, direct)
+                .isLessThanOrEqualTo(direct / 10);
+    }
+
+    @Test
+    void readsSeeBufferedWritesBeforeTheyAreFlushed() throws Exception {
+        Long userId = users.save(User.builder().name("ryw").email("ryw@test").build()).getId();
+        Long listId = listService.create(userId, "ryw").id();
+        Long taskId = taskService.add(listId, "t", "old").id();
+        long before = listService.version(listId);
+
+        Versioned<TaskDTO> written = taskService.update(taskId, null, "new", true, null);
+        // No version to tag the response with: the list only moves when the change is flushed.
+        assertThat(written.version()).isNull();
+        TaskDTO returned = written.body();
+        assertThat(returned.done()).isTrue();
+        assertThat(returned.description()).isEqualTo("new");
+        assertThat(tasks.findById(taskId).orElseThrow().isDone()).isFalse();
+        assertThat(listService.pendingWrites(listId)).isPositive();
+        TaskDTO read = listService.tasks(listId, new TaskFilter(null, null, null, false), null, 10).items().get(0);
+        assertThat(read.done()).isTrue();
+        assertThat(read.description()).isEqualTo("new");
+
+        awaitFlush();
+        assertThat(tasks.findById(taskId).orElseThrow().isDone()).isTrue();
+        assertThat(listService.pendingWrites(listId)).isZero();
+        assertThat(listService.version(listId)).isGreaterThan(before);
+    }
+
+    @Test
+    void synchronousWriteWaitsForTheTasksFlushInProgress() throws Exception {
+        Long userId = users.save(User.builder().name("race").email("race@test").build()).getId();
+        Long listId = listService.create(userId, "race").id();
+        Long taskId = taskService.add(listId, "t", "old").id();
+
+        taskService.update(taskId, null, "buffered", true);
+        // The flusher's first half: drained and in flight, its UPDATE not committed yet.
+        List<PendingWrite> drained = buffer.drain(true);
+        assertThat(drained).extracting(PendingWrite::taskId).containsExactly(taskId);
+
+        CompletableFuture<TaskDTO> rename = CompletableFuture.supplyAsync(() -> taskService.update(taskId, "renamed", null, null));
+        Thread.sleep(300);
+        assertThat(rename).as("synchronous write waits for the flush").isNotDone();
+
+        taskService.writeBuffered(drained.stream().map(PendingWrite::toItem).toList());
+        buffer.complete(drained);
+        rename.get(5, TimeUnit.SECONDS);
+
+        Task t = tasks.findById(taskId).orElseThrow();
+        assertThat(t.getTitle()).isEqualTo("renamed");
+        assertThat(t.isDone()).isTrue();
+        assertThat(t.getDescription()).isEqualTo("buffered");
+    }
+
+    @Test
+    void synchronousWriteTakesOverAFlushThatOutlastsTheWait() throws Exception {
+        Long userId = users.save(User.builder().name("slow").email("slow@test").build()).getId();
+        Long listId = listService.create(userId, "slow").id();
+        Long taskId = taskService.add(listId, "t", "old").id();
+
+        taskService.update(taskId, null, "buffered", true);
+        List<PendingWrite> drained = buffer.drain(true);
+        long wait = (long) ReflectionTestUtils.getField(buffer, "inFlightWaitNanos");
+        ReflectionTestUtils.setField(buffer, "inFlightWaitNanos", 0L);
+        try {
+            taskService.update(taskId, "renamed", null, null);
+        } finally {
+            ReflectionTestUtils.setField(buffer, "inFlightWaitNanos", wait);
+        }
+        // The late flush neither fails nor undoes the rename; completing it is a no-op.
+        taskService.writeBuffered(drained.stream().map(PendingWrite::toItem).toList());
+        buffer.complete(drained);
+
+        Task t = tasks.findById(taskId).orElseThrow();
+        assertThat(t.getTitle()).isEqualTo("renamed");
+        assertThat(t.isDone()).isTrue();
+        assertThat(buffer.isEmpty()).isTrue();
+        assertThat(listService.pendingWrites(listId)).isZero();
+    }
+
+    @Test
+    void secondOfTwoRacingTaskWritesFails() throws Exception {
+        Long userId = users.save(User.builder().name("occ").email("occ@test").build()).getId();
+        Long listId = listService.create(userId, "occ").id();
+        Long taskId = taskService.add(listId, "t", "old").id();
+
+        assertThatThrownBy(() -> tx.executeWithoutResult(s -> {
+            Task stale = tasks.findById(taskId).orElseThrow();
+            CompletableFuture.runAsync(() -> taskService.update(taskId, "renamed", null, null)).join();
+            stale.setDone(true);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        Task t = tasks.findById(taskId).orElseThrow();
+        assertThat(t.getTitle()).isEqualTo("renamed");
+        assertThat(t.isDone()).isFalse();
+    }
+
+    @Test
+    void bufferedWriteSurvivesARolledBackSynchronousWrite() throws Exception {
+        Long userId = users.save(User.builder().name("rb").email("rb@test").build()).getId();
+        Long listId = listService.create(userId, "rb").id();
+        Long taskId = taskService.add(listId, "t", "old").id();
+        taskService.add(listId, "taken", null);
+
+        taskService.update(taskId, null, "keep", true);
+        assertThatThrownBy(() -> taskService.update(taskId, "taken", null, null)).isInstanceOf(ConflictException.class);
+        assertThat(listService.pendingWrites(listId)).isPositive();
+
+        awaitFlush();
+        Task t = tasks.findById(taskId).orElseThrow();
+        assertThat(t.getDescription()).isEqualTo("keep");
+        assertThat(t.isDone()).isTrue();
+    }
+
+    @Test
+    void agendaSearchAndExportSeeBufferedWrites() throws Exception {
+        Long userId = users.save(User.builder().name("ovl").email("ovl@test").build()).getId();
+        Long listId = listService.create(userId, "ovl").id();
+        LocalDate today = LocalDate.now();
+        Long taskId = taskService.addAll(List.of(new TaskCreateItem(listId, "Revisar contrato", "old", null, today)))
+                .items().get(0).task().id();
+
+        taskService.update(taskId, null, "new", true);
+        assertThat(listService.agenda(userId, today, today, null, 10).days().get(0).tasks())
+                .extracting(AgendaItem::description).containsExactly("new");
+        assertThat(search.search(userId, "contrato", null, 10).items())
+                .extracting(SearchHit::description, SearchHit::done).containsExactly(tuple("new", true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exports.export(userId, out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"description\":\"new\"", "\"done\":true");
+        awaitFlush();
+    }
+
+    private long runWorkload(Long userId, String name) throws InterruptedException {
+        Long listId = listService.create(userId, name).id();
+        List<TaskCreateItem> items = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) items.add(new TaskCreateItem(listId, "t" + i, ""));
+        List<Long> ids = taskService.addAll(items).items().stream().map(r -> r.task().id()).toList();
+
+        UpdateCounter.UPDATES.set(0);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Long id : ids) {
+                taskService.update(id, null, null, round % 2 == 0);
+                taskService.update(id, null, "rascunho " + round, null);
+            }
+        }
+        awaitFlush();
+        long updates = UpdateCounter.UPDATES.get();
+
+        for (Long id : ids) {
+            assertThat(tasks.findById(id).orElseThrow())
+                    .satisfies(t -> assertThat(t.isDone()).isTrue())
+                    .satisfies(t -> assertThat(t.getDescription()).isEqualTo("rascunho " + (ROUNDS - 1)));
+        }
+        return updates;
+    }
+
+    private void awaitFlush() throws InterruptedException {
+        for (int i = 0; i < 100 && !buffer.isEmpty(); i++) Thread.sleep(50);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    public static class UpdateCounter implements StatementInspector {
+        static final AtomicInteger UPDATES = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().regionMatches(true, 0, "update", 0, 6)) UPDATES.incrementAndGet();
+            return sql;
+        }
+    }
+}